@@ -0,0 +1,150 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.benchmarks;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.PaginaCursorDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.VehiculoFiltroDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.VehiculoResponseDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Mantenimiento;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Modelo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Vehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.EstadoVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.ModeloRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.services.MantenimientoService;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.services.VehiculoService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Sentencias SQL por lectura con y sin la cache de segundo nivel de Hibernate.
+ * Los contadores auxiliares "sentencias" y "operaciones" salen en el JSON de resultados;
+ * al cerrar cada trial se imprime además el cociente sentencias/operación de la última iteración.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CacheSegundoNivelBenchmark {
+
+    private static final VehiculoFiltroDto SIN_FILTRO = new VehiculoFiltroDto(null, null, null, null, null, null, null);
+
+    @Param({"true", "false"})
+    private boolean cacheSegundoNivel;
+
+    @Param({"1000"})
+    private int tamanioFlota;
+
+    private FlotaSembrada flota;
+    private VehiculoService vehiculoService;
+    private MantenimientoService mantenimientoService;
+    private ModeloRepository modeloRepository;
+    private Statistics estadisticas;
+    private List<UUID> vehiculos;
+    private final LongAdder sentenciasIteracion = new LongAdder();
+    private final LongAdder operacionesIteracion = new LongAdder();
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Sentencias {
+        public long sentencias;
+        public long operaciones;
+    }
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        flota = new FlotaSembrada(tamanioFlota, 1,
+                "spring.jpa.properties.hibernate.generate_statistics=true",
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + cacheSegundoNivel,
+                "spring.jpa.properties.hibernate.cache.use_query_cache=" + cacheSegundoNivel);
+        vehiculoService = flota.bean(VehiculoService.class);
+        mantenimientoService = flota.bean(MantenimientoService.class);
+        modeloRepository = flota.bean(ModeloRepository.class);
+        estadisticas = flota.bean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        vehiculos = List.copyOf(flota.getVehiculos());
+    }
+
+    @Setup(Level.Iteration)
+    public void reiniciarConteo() {
+        sentenciasIteracion.reset();
+        operacionesIteracion.reset();
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        if (operacionesIteracion.sum() > 0) {
+            System.out.printf("%ncacheSegundoNivel=%s: %.2f sentencias SQL por operación%n",
+                    cacheSegundoNivel, sentenciasIteracion.doubleValue() / operacionesIteracion.sum());
+        }
+        flota.close();
+    }
+
+    @Benchmark
+    public Vehiculo obtenerPorId(Sentencias contador) {
+        return contar(contador, () -> vehiculoService.obtenerPorId(vehiculoAlAzar()));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Vehiculo> listarDisponibles(Sentencias contador) {
+        return contar(contador, vehiculoService::listarDisponibles);
+    }
+
+    @Benchmark
+    public List<Vehiculo> listarPorEstado(Sentencias contador) {
+        return contar(contador, () -> vehiculoService.listarPorEstado(EstadoVehiculo.EN_MANTENIMIENTO));
+    }
+
+    @Benchmark
+    public PaginaCursorDto<VehiculoResponseDto> listarPaginado(Sentencias contador) {
+        return contar(contador, () -> vehiculoService.listarPaginado(SIN_FILTRO, null, 50));
+    }
+
+    // Mantenimiento -> Vehiculo -> Modelo/Tipo sin fetch join: los catálogos se resuelven por id
+    @Benchmark
+    public List<Mantenimiento> listarHistorialMantenimientos(Sentencias contador) {
+        return contar(contador, () -> mantenimientoService.listarHistorialMantenimientos(vehiculoAlAzar()));
+    }
+
+    @Benchmark
+    public List<Modelo> modelosPorMarca(Sentencias contador) {
+        return contar(contador, () -> modeloRepository.findByMarcaId(
+                (long) ThreadLocalRandom.current().nextInt(1, 11)));
+    }
+
+    private <T> T contar(Sentencias contador, Supplier<T> lectura) {
+        long antes = estadisticas.getPrepareStatementCount();
+        T resultado = lectura.get();
+        long sentencias = estadisticas.getPrepareStatementCount() - antes;
+        contador.sentencias += sentencias;
+        contador.operaciones++;
+        sentenciasIteracion.add(sentencias);
+        operacionesIteracion.increment();
+        return resultado;
+    }
+
+    private UUID vehiculoAlAzar() {
+        return vehiculos.get(ThreadLocalRandom.current().nextInt(vehiculos.size()));
+    }
+}
@@ -0,0 +1,163 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.benchmarks;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.MsvcVehiculosApplication;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Mantenimiento;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Marca;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Modelo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.TipoVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Vehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.EstadoVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.TipoCombustible;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.MantenimientoRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.MarcaRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.ModeloRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.TipoVehiculoRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.VehiculoRepository;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Levanta el contexto de Spring sin servidor web sobre una H2 en memoria y la siembra con
+ * {@code tamanioFlota} vehículos (repartidos en unas pocas marcas, modelos y tipos) y
+ * {@code mantenimientosPorVehiculo} mantenimientos finalizados por vehículo. Con la propiedad
+ * {@code spring.main.web-application-type=servlet} arranca también Tomcat (ver {@link #getPuertoHttp()}).
+ */
+final class FlotaSembrada implements AutoCloseable {
+
+    private static final int MARCAS = 10;
+    private static final int MODELOS_POR_MARCA = 5;
+    private static final int TIPOS = 4;
+    private static final int LOTE = 500;
+
+    private final ConfigurableApplicationContext contexto;
+    private final List<UUID> vehiculos = new ArrayList<>();
+    private final List<Long> modelos = new ArrayList<>();
+    private final List<Long> tipos = new ArrayList<>();
+
+    FlotaSembrada(int tamanioFlota, int mantenimientosPorVehiculo, String... propiedades) {
+        Map<String, String> argumentos = new LinkedHashMap<>();
+        Stream.concat(Stream.of(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark-" + UUID.randomUUID()
+                                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.org.hibernate.orm.jdbc.bind=WARN",
+                        "logging.level.com.grupodos=WARN",
+                        "outbox.sink=archivo",
+                        "outbox.archivo=target/jmh-outbox.ndjson"),
+                // Las propiedades del benchmark se agregan después y reemplazan a las anteriores
+                Stream.of(propiedades))
+                .forEach(propiedad -> argumentos.put(StringUtils.substringBefore(propiedad, '='), propiedad));
+        // Como argumentos de línea de comandos prevalecen también sobre el application.properties del classpath
+        this.contexto = new SpringApplicationBuilder(MsvcVehiculosApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(argumentos.values().stream().map(propiedad -> "--" + propiedad).toArray(String[]::new));
+        sembrar(tamanioFlota, mantenimientosPorVehiculo);
+    }
+
+    <T> T bean(Class<T> tipo) {
+        return contexto.getBean(tipo);
+    }
+
+    int getPuertoHttp() {
+        return contexto.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    List<UUID> getVehiculos() {
+        return vehiculos;
+    }
+
+    List<Long> getModelos() {
+        return modelos;
+    }
+
+    List<Long> getTipos() {
+        return tipos;
+    }
+
+    @Override
+    public void close() {
+        contexto.close();
+    }
+
+    private void sembrar(int tamanioFlota, int mantenimientosPorVehiculo) {
+        TransactionTemplate tx = new TransactionTemplate(bean(PlatformTransactionManager.class));
+        List<Modelo> catalogoModelos = new ArrayList<>();
+        List<TipoVehiculo> catalogoTipos = new ArrayList<>();
+
+        tx.executeWithoutResult(status -> {
+            for (int m = 0; m < MARCAS; m++) {
+                Marca marca = new Marca();
+                marca.setNombre("Marca" + m);
+                marca = bean(MarcaRepository.class).save(marca);
+                for (int n = 0; n < MODELOS_POR_MARCA; n++) {
+                    Modelo modelo = new Modelo();
+                    modelo.setNombre("Modelo" + m + "-" + n);
+                    modelo.setMarca(marca);
+                    catalogoModelos.add(bean(ModeloRepository.class).save(modelo));
+                }
+            }
+            for (int t = 0; t < TIPOS; t++) {
+                TipoVehiculo tipo = new TipoVehiculo();
+                tipo.setNombre("Tipo" + t);
+                catalogoTipos.add(bean(TipoVehiculoRepository.class).save(tipo));
+            }
+        });
+        catalogoModelos.forEach(modelo -> modelos.add(modelo.getId()));
+        catalogoTipos.forEach(tipo -> tipos.add(tipo.getId().longValue()));
+
+        TipoCombustible[] combustibles = TipoCombustible.values();
+        for (int inicio = 0; inicio < tamanioFlota; inicio += LOTE) {
+            int desde = inicio;
+            int hasta = Math.min(inicio + LOTE, tamanioFlota);
+            tx.executeWithoutResult(status -> {
+                List<Vehiculo> lote = new ArrayList<>(hasta - desde);
+                for (int i = desde; i < hasta; i++) {
+                    Vehiculo vehiculo = new Vehiculo();
+                    vehiculo.setPlaca(String.format("F%07d", i));
+                    vehiculo.setModelo(catalogoModelos.get(i % catalogoModelos.size()));
+                    vehiculo.setTipoVehiculo(catalogoTipos.get(i % catalogoTipos.size()));
+                    vehiculo.setAnioFabricacion(2015 + i % 10);
+                    vehiculo.setCombustible(combustibles[i % combustibles.length]);
+                    vehiculo.setDescripcion("Vehículo de benchmark " + i);
+                    vehiculo.setCreadoEn(OffsetDateTime.now());
+                    vehiculo.setEstado(EstadoVehiculo.DISPONIBLE);
+                    vehiculo.setActivo(true);
+                    lote.add(vehiculo);
+                }
+                bean(VehiculoRepository.class).saveAll(lote);
+
+                List<Mantenimiento> mantenimientos = new ArrayList<>();
+                for (Vehiculo vehiculo : lote) {
+                    for (int k = 0; k < mantenimientosPorVehiculo; k++) {
+                        Mantenimiento mantenimiento = new Mantenimiento();
+                        mantenimiento.setVehiculo(vehiculo);
+                        mantenimiento.setDescripcion("Mantenimiento de benchmark");
+                        mantenimiento.setFechaInicio(LocalDate.now().minusDays(30L * (k + 1)));
+                        mantenimiento.setFechaFin(LocalDate.now().minusDays(30L * k + 1));
+                        mantenimiento.setCosto(BigDecimal.valueOf(100 + k));
+                        mantenimiento.setFinalizado(true);
+                        mantenimientos.add(mantenimiento);
+                    }
+                }
+                bean(MantenimientoRepository.class).saveAll(mantenimientos);
+                lote.forEach(vehiculo -> vehiculos.add(vehiculo.getId()));
+            });
+        }
+    }
+}
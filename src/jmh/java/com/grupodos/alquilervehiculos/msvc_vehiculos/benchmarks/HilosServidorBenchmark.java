@@ -0,0 +1,105 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga HTTP real contra Tomcat con hilos de plataforma (pool por defecto de 200) y con hilos virtuales
+ * ({@code spring.threads.virtual.enabled}), con el bulkhead de repositorios activo en ambos casos.
+ * Cada hilo de JMH es un cliente concurrente que pide GET /api/vehiculos/{id} sin If-None-Match, así que
+ * cada petición llega a la base de datos. SampleTime da los percentiles (p0.99) y Throughput las
+ * peticiones por segundo; el contador "rechazadas" cuenta los 503 del bulkhead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(400)
+@Fork(1)
+public class HilosServidorBenchmark {
+
+    @Param({"false", "true"})
+    private boolean hilosVirtuales;
+
+    @Param({"1000"})
+    private int tamanioFlota;
+
+    private FlotaSembrada flota;
+    private HttpClient cliente;
+    private String base;
+    private List<UUID> vehiculos;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Respuestas {
+        public long correctas;
+        public long rechazadas;
+
+        @Setup(Level.Iteration)
+        public void reiniciar() {
+            correctas = 0;
+            rechazadas = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        flota = new FlotaSembrada(tamanioFlota, 0,
+                "spring.main.web-application-type=servlet",
+                "server.port=0",
+                "spring.threads.virtual.enabled=" + hilosVirtuales);
+        base = "http://localhost:" + flota.getPuertoHttp() + "/api/vehiculos/";
+        vehiculos = List.copyOf(flota.getVehiculos());
+        cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        cliente.close();
+        flota.close();
+    }
+
+    @Benchmark
+    public int obtenerPorId(Respuestas respuestas) throws IOException, InterruptedException {
+        UUID id = vehiculos.get(ThreadLocalRandom.current().nextInt(vehiculos.size()));
+        HttpRequest peticion = HttpRequest.newBuilder(URI.create(base + id))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        int estado = cliente.send(peticion, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (estado == 503) {
+            respuestas.rechazadas++;
+        } else {
+            respuestas.correctas++;
+        }
+        return estado;
+    }
+}
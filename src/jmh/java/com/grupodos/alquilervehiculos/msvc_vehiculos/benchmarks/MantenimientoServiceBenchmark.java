@@ -0,0 +1,77 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.benchmarks;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.MantenimientoRequestDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Mantenimiento;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.services.MantenimientoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MantenimientoServiceBenchmark {
+
+    @Param({"1000", "10000"})
+    private int tamanioFlota;
+
+    @Param({"5"})
+    private int mantenimientosPorVehiculo;
+
+    private final AtomicInteger siguiente = new AtomicInteger();
+
+    private FlotaSembrada flota;
+    private MantenimientoService mantenimientoService;
+    private List<UUID> vehiculos;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        flota = new FlotaSembrada(tamanioFlota, mantenimientosPorVehiculo);
+        mantenimientoService = flota.bean(MantenimientoService.class);
+        vehiculos = List.copyOf(flota.getVehiculos());
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        flota.close();
+    }
+
+    /**
+     * crearMantenimiento exige un vehículo DISPONIBLE sin mantenimientos abiertos, así que cada
+     * operación crea y finaliza uno para dejar el vehículo como estaba. Recorre la flota en orden
+     * para que ningún vehículo acumule historial más rápido que otro.
+     */
+    @Benchmark
+    public Mantenimiento crearYFinalizarMantenimiento() {
+        UUID vehiculoId = vehiculos.get(Math.floorMod(siguiente.getAndIncrement(), vehiculos.size()));
+        Mantenimiento creado = mantenimientoService.crearMantenimiento(new MantenimientoRequestDto(
+                vehiculoId, "Mantenimiento de benchmark", null, null, BigDecimal.TEN));
+        return mantenimientoService.finalizarMantenimiento(creado.getId());
+    }
+
+    @Benchmark
+    public BigDecimal obtenerCostoTotalMantenimientos() {
+        UUID vehiculoId = vehiculos.get(ThreadLocalRandom.current().nextInt(vehiculos.size()));
+        return mantenimientoService.obtenerCostoTotalMantenimientos(vehiculoId);
+    }
+}
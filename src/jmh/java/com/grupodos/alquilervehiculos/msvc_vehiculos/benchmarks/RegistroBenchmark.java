@@ -0,0 +1,93 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.benchmarks;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.VehiculoRequestDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Vehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.TipoCombustible;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.services.VehiculoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Costo del logging por petición:
+ * "anterior" reproduce los valores por defecto previos (SQL a DEBUG, parámetros a TRACE,
+ * aplicación a DEBUG, consola síncrona); "defecto" los actuales; "prod" el perfil de
+ * producción (JSON asíncrono con cola acotada).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RegistroBenchmark {
+
+    @Param({"anterior", "defecto", "prod"})
+    private String registro;
+
+    @Param({"1000"})
+    private int tamanioFlota;
+
+    private final AtomicLong placas = new AtomicLong();
+
+    private FlotaSembrada flota;
+    private VehiculoService vehiculoService;
+    private List<UUID> vehiculos;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        String[] propiedades = switch (registro) {
+            case "anterior" -> new String[]{
+                    "logging.level.com.grupodos=DEBUG",
+                    "logging.level.org.hibernate.SQL=DEBUG",
+                    "logging.level.org.hibernate.orm.jdbc.bind=TRACE"};
+            case "defecto" -> new String[]{
+                    "logging.level.com.grupodos=INFO"};
+            case "prod" -> new String[]{
+                    "spring.profiles.active=prod",
+                    "logging.level.com.grupodos=INFO"};
+            default -> throw new IllegalArgumentException("Configuración de registro desconocida: " + registro);
+        };
+        flota = new FlotaSembrada(tamanioFlota, 0, propiedades);
+        vehiculoService = flota.bean(VehiculoService.class);
+        vehiculos = List.copyOf(flota.getVehiculos());
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        flota.close();
+    }
+
+    @Benchmark
+    public Vehiculo obtenerPorId() {
+        return vehiculoService.obtenerPorId(vehiculos.get(ThreadLocalRandom.current().nextInt(vehiculos.size())));
+    }
+
+    @Benchmark
+    public Vehiculo crearVehiculo() {
+        long n = placas.incrementAndGet();
+        return vehiculoService.crearVehiculo(new VehiculoRequestDto(
+                String.format("L%07d", n),
+                flota.getModelos().get((int) (n % flota.getModelos().size())),
+                flota.getTipos().get((int) (n % flota.getTipos().size())),
+                2024,
+                TipoCombustible.DIESEL,
+                "Vehículo creado en benchmark de logging"));
+    }
+}
@@ -0,0 +1,153 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.benchmarks;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.GeneradorUuidV7;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Carga masiva de vehículos con PK UUID v4 (aleatoria) frente a UUID v7 (ordenada por tiempo), más un
+ * mantenimiento por vehículo para medir también el índice de {@code mantenimientos.id_vehiculo}.
+ * Cada iteración es una sola carga completa sobre tablas recién creadas; los contadores auxiliares
+ * "filasPorSegundo", "bytesIndicesVehiculos" y "bytesIndicesMantenimientos" salen en el JSON de resultados.
+ * <p>
+ * Por defecto corre sobre H2 en archivo (target/), donde el tamaño es el de tabla más índices. Para medir
+ * el tamaño real de los índices B-tree contra PostgreSQL:
+ * {@code -Djmh.args="UuidV7Benchmark -p url=jdbc:postgresql://localhost:5432/bench -p usuario=... -p clave=..."}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 1, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 3, time = 1, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class UuidV7Benchmark {
+
+    private static final int LOTE = 1_000;
+    private static final int FILAS_POR_COMMIT = 50_000;
+
+    @Param({"v4", "v7"})
+    private String generador;
+
+    @Param({"1000000"})
+    private int filas;
+
+    @Param({"jdbc:h2:file:./target/uuid-benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE"})
+    private String url;
+
+    @Param({"sa"})
+    private String usuario;
+
+    @Param({""})
+    private String clave;
+
+    private Connection conexion;
+    private Supplier<UUID> ids;
+    private boolean postgres;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Tamanios {
+        public long filasPorSegundo;
+        public long bytesIndicesVehiculos;
+        public long bytesIndicesMantenimientos;
+    }
+
+    @Setup(Level.Trial)
+    public void conectar() throws SQLException {
+        conexion = DriverManager.getConnection(url, usuario, clave);
+        conexion.setAutoCommit(false);
+        postgres = url.startsWith("jdbc:postgresql:");
+        ids = "v7".equals(generador) ? GeneradorUuidV7::generar : UUID::randomUUID;
+    }
+
+    @Setup(Level.Invocation)
+    public void recrearTablas() throws SQLException {
+        try (Statement sentencia = conexion.createStatement()) {
+            sentencia.execute("DROP TABLE IF EXISTS bench_mantenimientos");
+            sentencia.execute("DROP TABLE IF EXISTS bench_vehiculos");
+            sentencia.execute("""
+                    CREATE TABLE bench_vehiculos (
+                        id_vehiculo UUID PRIMARY KEY,
+                        placa       VARCHAR(20) NOT NULL,
+                        creado_en   TIMESTAMP   NOT NULL
+                    )""");
+            sentencia.execute("""
+                    CREATE TABLE bench_mantenimientos (
+                        id_mantenimiento BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                        id_vehiculo      UUID    NOT NULL REFERENCES bench_vehiculos (id_vehiculo),
+                        finalizado       BOOLEAN NOT NULL
+                    )""");
+            sentencia.execute("CREATE INDEX idx_bench_mantenimientos_vehiculo ON bench_mantenimientos (id_vehiculo)");
+        }
+        conexion.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() throws SQLException {
+        conexion.close();
+    }
+
+    @Benchmark
+    public void cargaMasiva(Tamanios tamanios) throws SQLException {
+        long inicio = System.nanoTime();
+        try (PreparedStatement vehiculos = conexion.prepareStatement(
+                "INSERT INTO bench_vehiculos (id_vehiculo, placa, creado_en) VALUES (?, ?, ?)");
+             PreparedStatement mantenimientos = conexion.prepareStatement(
+                     "INSERT INTO bench_mantenimientos (id_vehiculo, finalizado) VALUES (?, ?)")) {
+            for (int i = 1; i <= filas; i++) {
+                UUID id = ids.get();
+                vehiculos.setObject(1, id);
+                vehiculos.setString(2, String.format("U%07d", i));
+                vehiculos.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+                vehiculos.addBatch();
+                mantenimientos.setObject(1, id);
+                mantenimientos.setBoolean(2, false);
+                mantenimientos.addBatch();
+                if (i % LOTE == 0 || i == filas) {
+                    vehiculos.executeBatch();
+                    mantenimientos.executeBatch();
+                }
+                if (i % FILAS_POR_COMMIT == 0 || i == filas) {
+                    conexion.commit();
+                }
+            }
+        }
+        tamanios.filasPorSegundo = filas * 1_000_000_000L / (System.nanoTime() - inicio);
+        tamanios.bytesIndicesVehiculos = bytesIndices("bench_vehiculos");
+        tamanios.bytesIndicesMantenimientos = bytesIndices("bench_mantenimientos");
+    }
+
+    private long bytesIndices(String tabla) throws SQLException {
+        String consulta = postgres
+                ? "SELECT pg_indexes_size('" + tabla + "')"
+                : "SELECT DISK_SPACE_USED('" + tabla + "')";
+        try (Statement sentencia = conexion.createStatement();
+             ResultSet resultado = sentencia.executeQuery(consulta)) {
+            resultado.next();
+            return resultado.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.ImportacionResultadoDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.VehiculoRequestDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.VehiculoResponseDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Vehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.TipoCombustible;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.services.ImportacionVehiculosService;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.services.VehiculoService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Operaciones de VehiculoService sobre una flota sembrada de {@code tamanioFlota} vehículos.
+ * <p>
+ * Exportación para reportes: {@code listarTodosParaReportes} arma la lista completa y
+ * {@code exportarEnStreaming} recorre el cursor escribiendo NDJSON como el endpoint. Con {@code -prof gc},
+ * gc.alloc.rate.norm dividido por tamanioFlota da los bytes asignados por fila; las variantes
+ * {@code heapRetenido*} informan en "kbRetenidos" cuánto heap (tras un GC completo) se libera al soltar la
+ * lista armada o al terminar un recorrido que iba por la mitad (JMH suma el contador de las iteraciones medidas).
+ * <p>
+ * Alta masiva: {@code importarEnLote} (POST /bulk) frente a {@code crearUnoPorUno} (POST repetido) con los
+ * mismos {@code vehiculosPorOperacion} vehículos; el contador "vehiculos" da los vehículos creados por segundo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class VehiculoServiceBenchmark {
+
+    @Param({"1000", "10000"})
+    private int tamanioFlota;
+
+    private final AtomicLong placas = new AtomicLong();
+
+    private FlotaSembrada flota;
+    private VehiculoService vehiculoService;
+    private ImportacionVehiculosService importacionVehiculosService;
+    private ObjectMapper objectMapper;
+    private List<UUID> vehiculos;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HeapRetenido {
+        public long kbRetenidos;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Importacion {
+        @Param({"10", "100", "1000"})
+        private int vehiculosPorOperacion;
+
+        public long vehiculos;
+
+        @Setup(Level.Iteration)
+        public void reiniciar() {
+            vehiculos = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        flota = new FlotaSembrada(tamanioFlota, 0);
+        vehiculoService = flota.bean(VehiculoService.class);
+        importacionVehiculosService = flota.bean(ImportacionVehiculosService.class);
+        objectMapper = flota.bean(ObjectMapper.class);
+        vehiculos = List.copyOf(flota.getVehiculos());
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        flota.close();
+    }
+
+    @Benchmark
+    public Vehiculo crearVehiculo() {
+        return vehiculoService.crearVehiculo(nuevoVehiculo());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public ImportacionResultadoDto importarEnLote(Importacion importacion) {
+        ImportacionResultadoDto resultado = importacionVehiculosService.importar(
+                nuevosVehiculos(importacion.vehiculosPorOperacion));
+        importacion.vehiculos += importacion.vehiculosPorOperacion;
+        return resultado;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Vehiculo crearUnoPorUno(Importacion importacion) {
+        Vehiculo ultimo = null;
+        for (VehiculoRequestDto dto : nuevosVehiculos(importacion.vehiculosPorOperacion)) {
+            ultimo = vehiculoService.crearVehiculo(dto);
+        }
+        importacion.vehiculos += importacion.vehiculosPorOperacion;
+        return ultimo;
+    }
+
+    @Benchmark
+    public Vehiculo obtenerPorId() {
+        return vehiculoService.obtenerPorId(vehiculoAlAzar());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<VehiculoResponseDto> listarTodosParaReportes() {
+        return vehiculoService.listarTodosParaReportes();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long exportarEnStreaming() {
+        SalidaContada salida = new SalidaContada();
+        exportar(salida, () -> {
+        });
+        return salida.bytes;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void heapRetenidoLista(HeapRetenido heap) {
+        long conLista = heapConLista();
+        heap.kbRetenidos = (conLista - heapTrasGc()) / 1024;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void heapRetenidoStreaming(HeapRetenido heap) {
+        int mitad = tamanioFlota / 2;
+        int[] fila = {0};
+        long[] aMitad = {0};
+        exportar(new SalidaContada(), () -> {
+            if (++fila[0] == mitad) {
+                aMitad[0] = heapTrasGc();
+            }
+        });
+        heap.kbRetenidos = (aMitad[0] - heapTrasGc()) / 1024;
+    }
+
+    @Benchmark
+    public boolean verificarDisponibilidad() {
+        return vehiculoService.verificarDisponibilidad(vehiculoAlAzar());
+    }
+
+    // Mismo recorrido que GET /para-reportes en NDJSON, hacia una salida que solo cuenta bytes
+    private void exportar(OutputStream salida, Runnable porFila) {
+        BufferedOutputStream buffer = new BufferedOutputStream(salida);
+        vehiculoService.recorrerParaReportes(dto -> {
+            try {
+                buffer.write(objectMapper.writeValueAsBytes(dto));
+                buffer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            porFila.run();
+        });
+        try {
+            buffer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // La H2 en memoria comparte el heap: se compara contra el heap ya sin la lista, no contra el de antes de consultar
+    private long heapConLista() {
+        List<VehiculoResponseDto> filas = vehiculoService.listarTodosParaReportes();
+        long heap = heapTrasGc();
+        return filas.isEmpty() ? 0 : heap;
+    }
+
+    private static long heapTrasGc() {
+        MemoryMXBean memoria = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        System.gc();
+        return memoria.getHeapMemoryUsage().getUsed();
+    }
+
+    private static final class SalidaContada extends OutputStream {
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+
+    private List<VehiculoRequestDto> nuevosVehiculos(int cantidad) {
+        List<VehiculoRequestDto> lote = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            lote.add(nuevoVehiculo());
+        }
+        return lote;
+    }
+
+    private VehiculoRequestDto nuevoVehiculo() {
+        long n = placas.incrementAndGet();
+        return new VehiculoRequestDto(
+                String.format("B%07d", n),
+                flota.getModelos().get((int) (n % flota.getModelos().size())),
+                flota.getTipos().get((int) (n % flota.getTipos().size())),
+                2024,
+                TipoCombustible.GASOLINA,
+                "Vehículo creado en benchmark");
+    }
+
+    private UUID vehiculoAlAzar() {
+        return vehiculos.get(ThreadLocalRandom.current().nextInt(vehiculos.size()));
+    }
+}
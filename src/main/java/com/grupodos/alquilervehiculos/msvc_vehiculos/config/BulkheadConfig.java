@@ -0,0 +1,43 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.config;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.env.Environment;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "vehiculos.bulkhead.habilitado", havingValue = "true", matchIfMissing = true)
+public class BulkheadConfig {
+
+    // static: los BeanPostProcessor se crean antes que el resto de la configuración
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static BulkheadRepositorios bulkheadRepositorios(Environment environment) {
+        Binder binder = Binder.get(environment);
+        int permisos = binder.bind("vehiculos.bulkhead.permisos", Integer.class).orElse(10);
+        Duration espera = binder.bind("vehiculos.bulkhead.espera", Duration.class).orElse(Duration.ofMillis(500));
+        return new BulkheadRepositorios(permisos, espera);
+    }
+
+    @Bean
+    static BeanPostProcessor bulkheadRepositoriosPostProcessor(BulkheadRepositorios bulkhead) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory ->
+                            factory.addRepositoryProxyPostProcessor((proxyFactory, information) ->
+                                    proxyFactory.addAdvice(bulkhead)));
+                }
+                return bean;
+            }
+        };
+    }
+}
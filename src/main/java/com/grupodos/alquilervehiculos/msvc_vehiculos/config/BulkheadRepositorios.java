@@ -0,0 +1,91 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.config;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.exceptions.BaseDatosSaturadaException;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Semáforo delante de los repositorios que limita cuántos hilos usan la base de datos a la vez.
+ * Dentro de una transacción el permiso se toma en el primer acceso y se devuelve al terminar la
+ * transacción (igual que la conexión); fuera de ella, al terminar la llamada. Un hilo nunca toma
+ * dos permisos. Si no se obtiene permiso dentro de la espera configurada se rechaza con 503 en
+ * lugar de encolar sin límite, algo importante con hilos virtuales.
+ */
+@Slf4j
+public class BulkheadRepositorios implements MethodInterceptor {
+
+    private final Semaphore permisos;
+    private final Duration espera;
+
+    public BulkheadRepositorios(int permisos, Duration espera) {
+        this.permisos = new Semaphore(permisos, true);
+        this.espera = espera;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (!TransactionSynchronizationManager.hasResource(this)) {
+                adquirir();
+                retenerHastaFinDeTransaccion();
+            }
+            return invocation.proceed();
+        }
+
+        adquirir();
+        try {
+            return invocation.proceed();
+        } finally {
+            permisos.release();
+        }
+    }
+
+    private void retenerHastaFinDeTransaccion() {
+        boolean registrado = false;
+        try {
+            TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    try {
+                        TransactionSynchronizationManager.unbindResourceIfPossible(BulkheadRepositorios.this);
+                    } finally {
+                        permisos.release();
+                    }
+                }
+            });
+            registrado = true;
+        } finally {
+            // Sin la sincronización nadie devolvería el permiso: se devuelve ya y el hilo queda como estaba
+            if (!registrado) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(this);
+                permisos.release();
+            }
+        }
+    }
+
+    public int getPermisosDisponibles() {
+        return permisos.availablePermits();
+    }
+
+    private void adquirir() {
+        try {
+            if (permisos.tryAcquire(espera.toMillis(), TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            // Petición cancelada mientras esperaba: no se tomó permiso
+            Thread.currentThread().interrupt();
+            throw new BaseDatosSaturadaException(espera);
+        }
+        log.warn("Bulkhead de base de datos saturado: {} hilos en espera", permisos.getQueueLength());
+        throw new BaseDatosSaturadaException(espera);
+    }
+}
@@ -0,0 +1,47 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.config;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.services.VersionesAgregados;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.services.VersionesAgregados.Agregado;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Cache de catálogos. Se ordena antes que el interceptor transaccional para que un acierto
+ * no abra transacción ni pida conexión al pool. Las claves llevan la versión del catálogo
+ * (ver {@link VersionesAgregados}); con {@code sync = true} la clave se calcula una sola vez,
+ * así el valor se guarda con la versión vigente al empezar a cargarlo.
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    public static final String MARCAS = "marcas";
+    public static final String MARCA = "marca";
+    public static final String MODELOS = "modelos";
+    public static final String MODELO = "modelo";
+    public static final String MODELOS_POR_MARCA = "modelosPorMarca";
+    public static final String TIPOS = "tipos";
+    public static final String TIPO = "tipo";
+
+    public static final String CLAVES_MARCAS = "clavesMarcas";
+    public static final String CLAVES_MODELOS = "clavesModelos";
+    public static final String CLAVES_TIPOS = "clavesTipos";
+
+    @Bean(CLAVES_MARCAS)
+    public KeyGenerator clavesMarcas(VersionesAgregados versionesAgregados) {
+        return versionesAgregados.claves(Agregado.MARCAS);
+    }
+
+    @Bean(CLAVES_MODELOS)
+    public KeyGenerator clavesModelos(VersionesAgregados versionesAgregados) {
+        return versionesAgregados.claves(Agregado.MODELOS);
+    }
+
+    @Bean(CLAVES_TIPOS)
+    public KeyGenerator clavesTipos(VersionesAgregados versionesAgregados) {
+        return versionesAgregados.claves(Agregado.TIPOS);
+    }
+}
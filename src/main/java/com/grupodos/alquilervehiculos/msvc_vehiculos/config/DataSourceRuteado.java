@@ -0,0 +1,32 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Elige la réplica o la primaria según lo que marcó {@link JpaTransactionManagerReplica} al abrir la
+ * transacción. Sin marca (escrituras, lecturas estrictas, Flyway, código fuera de transacción) va a la primaria.
+ */
+public class DataSourceRuteado extends AbstractRoutingDataSource {
+
+    public enum Destino { PRIMARIA, REPLICA }
+
+    private static final ThreadLocal<Destino> DESTINO = new ThreadLocal<>();
+
+    static Destino actual() {
+        Destino destino = DESTINO.get();
+        return destino == null ? Destino.PRIMARIA : destino;
+    }
+
+    static void usar(Destino destino) {
+        if (destino == Destino.PRIMARIA) {
+            DESTINO.remove();
+        } else {
+            DESTINO.set(destino);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return actual();
+    }
+}
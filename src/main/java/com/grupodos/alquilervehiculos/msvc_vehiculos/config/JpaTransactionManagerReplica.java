@@ -0,0 +1,73 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.config;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.config.DataSourceRuteado.Destino;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Marca el destino de cada transacción nueva antes de que Hibernate pida la conexión:
+ * readOnly + {@link LecturaToleranteADesfase#ETIQUETA} va a la réplica, todo lo demás a la primaria.
+ * Las transacciones suspendidas (REQUIRES_NEW) recuperan su destino al reanudarse.
+ */
+class JpaTransactionManagerReplica extends JpaTransactionManager {
+
+    private record Suspendida(Object recursos, Destino destino) {
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        Destino destino = definition.isReadOnly() && definition instanceof TransactionAttribute atributo
+                && atributo.getLabels().contains(LecturaToleranteADesfase.ETIQUETA)
+                ? Destino.REPLICA
+                : Destino.PRIMARIA;
+        DataSourceRuteado.usar(destino);
+        try {
+            super.doBegin(transaction, definition);
+        } catch (RuntimeException e) {
+            DataSourceRuteado.usar(Destino.PRIMARIA);
+            throw e;
+        }
+        if (destino == Destino.REPLICA) {
+            // Lo leído de la réplica puede ir por detrás: se consulta la cache de segundo nivel pero no se alimenta
+            cambiarCacheMode(CacheMode.GET);
+        }
+    }
+
+    @Override
+    protected Object doSuspend(Object transaction) {
+        Suspendida suspendida = new Suspendida(super.doSuspend(transaction), DataSourceRuteado.actual());
+        DataSourceRuteado.usar(Destino.PRIMARIA);
+        return suspendida;
+    }
+
+    @Override
+    protected void doResume(Object transaction, Object suspendedResources) {
+        Suspendida suspendida = (Suspendida) suspendedResources;
+        super.doResume(transaction, suspendida.recursos());
+        DataSourceRuteado.usar(suspendida.destino());
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        try {
+            if (DataSourceRuteado.actual() == Destino.REPLICA) {
+                cambiarCacheMode(CacheMode.NORMAL);
+            }
+        } finally {
+            DataSourceRuteado.usar(Destino.PRIMARIA);
+            super.doCleanupAfterCompletion(transaction);
+        }
+    }
+
+    private void cambiarCacheMode(CacheMode cacheMode) {
+        if (TransactionSynchronizationManager.getResource(obtainEntityManagerFactory())
+                instanceof EntityManagerHolder holder) {
+            holder.getEntityManager().unwrap(Session.class).setCacheMode(cacheMode);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.config;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Transacción de solo lectura que admite datos con el retraso de replicación: si hay una réplica
+ * configurada ({@code vehiculos.replica.url}) se ejecuta contra ella. Las lecturas que deben ver la
+ * última escritura (detalle, verificaciones para contratos, resultados que se cachean) usan
+ * {@code @Transactional(readOnly = true)} y siguen yendo a la primaria.
+ * <p>
+ * Dentro de una transacción ya abierta se participa de ella y se usa su conexión.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Transactional(readOnly = true, label = LecturaToleranteADesfase.ETIQUETA)
+public @interface LecturaToleranteADesfase {
+
+    String ETIQUETA = "tolera-desfase";
+}
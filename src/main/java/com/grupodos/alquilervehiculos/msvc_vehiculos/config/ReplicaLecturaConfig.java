@@ -0,0 +1,70 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.config;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.config.DataSourceRuteado.Destino;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Con {@code vehiculos.replica.url} definido, el DataSource de la aplicación pasa a ser un
+ * {@link DataSourceRuteado} sobre dos pools Hikari: "primaria" (spring.datasource.*) y "replica"
+ * (vehiculos.replica.*). Sin esa propiedad se mantiene el DataSource único que configura Spring Boot.
+ */
+@Configuration
+@ConditionalOnExpression("'${vehiculos.replica.url:}' != ''")
+public class ReplicaLecturaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaria(DataSourceProperties properties) {
+        HikariDataSource primaria = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primaria.setPoolName("primaria");
+        return primaria;
+    }
+
+    @Bean
+    HikariDataSource replica(DataSourceProperties properties, Environment environment) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName("replica");
+        replica.setJdbcUrl(binder.bind("vehiculos.replica.url", String.class).get());
+        replica.setUsername(binder.bind("vehiculos.replica.username", String.class).orElse(properties.determineUsername()));
+        replica.setPassword(binder.bind("vehiculos.replica.password", String.class).orElse(properties.determinePassword()));
+        replica.setDriverClassName(properties.determineDriverClassName());
+        // Mismo contrato que la primaria: Hibernate asume auto-commit desactivado (provider_disables_autocommit)
+        replica.setAutoCommit(false);
+        replica.setReadOnly(true);
+        binder.bind("vehiculos.replica.hikari", Bindable.ofInstance(replica));
+        return replica;
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(@Qualifier("primaria") DataSource primaria, @Qualifier("replica") DataSource replica) {
+        DataSourceRuteado ruteado = new DataSourceRuteado();
+        ruteado.setTargetDataSources(Map.of(Destino.PRIMARIA, primaria, Destino.REPLICA, replica));
+        ruteado.setDefaultTargetDataSource(primaria);
+        return ruteado;
+    }
+
+    @Bean
+    JpaTransactionManager transactionManager(ObjectProvider<TransactionManagerCustomizers> customizers) {
+        JpaTransactionManager transactionManager = new JpaTransactionManagerReplica();
+        customizers.ifAvailable(c -> c.customize(transactionManager));
+        return transactionManager;
+    }
+}
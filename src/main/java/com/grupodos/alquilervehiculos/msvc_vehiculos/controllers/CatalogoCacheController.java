@@ -0,0 +1,39 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.controllers;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.CacheEstadisticasDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/catalogo/cache")
+@Slf4j
+@RequiredArgsConstructor
+public class CatalogoCacheController {
+
+    private final CacheManager cacheManager;
+
+    @GetMapping
+    public ResponseEntity<List<CacheEstadisticasDto>> estadisticas() {
+        log.debug("Solicitud para obtener estadísticas de la cache de catálogos");
+        List<CacheEstadisticasDto> estadisticas = cacheManager.getCacheNames().stream()
+                .map(cacheManager::getCache)
+                .filter(CaffeineCache.class::isInstance)
+                .map(CaffeineCache.class::cast)
+                .map(cache -> {
+                    CacheStats stats = cache.getNativeCache().stats();
+                    return new CacheEstadisticasDto(cache.getName(), stats.hitCount(), stats.missCount(),
+                            stats.evictionCount(), cache.getNativeCache().estimatedSize());
+                })
+                .toList();
+        return ResponseEntity.ok(estadisticas);
+    }
+}
@@ -1,6 +1,10 @@
 package com.grupodos.alquilervehiculos.msvc_vehiculos.controllers;
 
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.CostoAgrupadoDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.CostoMensualDto;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.MantenimientoRequestDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.MantenimientoVencimientoDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.PaginaDto;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Mantenimiento;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.services.MantenimientoService;
 import jakarta.validation.Valid;
@@ -68,6 +72,38 @@ public class MantenimientoController {
         return ResponseEntity.ok(mantenimientoService.obtenerCostoTotalMantenimientos(vehiculoId));
     }
 
+    @GetMapping("/costos/por-vehiculo")
+    public ResponseEntity<List<CostoAgrupadoDto>> obtenerCostosPorVehiculo(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        log.debug("Solicitud para obtener costos de mantenimiento por vehículo");
+        return ResponseEntity.ok(mantenimientoService.obtenerCostosPorVehiculo(desde, hasta));
+    }
+
+    @GetMapping("/costos/por-marca")
+    public ResponseEntity<List<CostoAgrupadoDto>> obtenerCostosPorMarca(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        log.debug("Solicitud para obtener costos de mantenimiento por marca");
+        return ResponseEntity.ok(mantenimientoService.obtenerCostosPorMarca(desde, hasta));
+    }
+
+    @GetMapping("/costos/por-tipo")
+    public ResponseEntity<List<CostoAgrupadoDto>> obtenerCostosPorTipo(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        log.debug("Solicitud para obtener costos de mantenimiento por tipo");
+        return ResponseEntity.ok(mantenimientoService.obtenerCostosPorTipo(desde, hasta));
+    }
+
+    @GetMapping("/costos/por-mes")
+    public ResponseEntity<List<CostoMensualDto>> obtenerCostosPorMes(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        log.debug("Solicitud para obtener costos de mantenimiento por mes");
+        return ResponseEntity.ok(mantenimientoService.obtenerCostosPorMes(desde, hasta));
+    }
+
     @GetMapping("/proximos-vencer")
     public ResponseEntity<List<Mantenimiento>> listarProximosAVencer(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaLimite) {
@@ -75,6 +111,24 @@ public class MantenimientoController {
         return ResponseEntity.ok(mantenimientoService.listarMantenimientosProximosAVencer(fechaLimite));
     }
 
+    @GetMapping("/proximos-vencer/pagina")
+    public ResponseEntity<PaginaDto<Mantenimiento>> listarProximosAVencerPaginado(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaLimite,
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(defaultValue = "100") int tamanio) {
+        log.debug("Solicitud para listar página {} de mantenimientos próximos a vencer", pagina);
+        return ResponseEntity.ok(mantenimientoService.listarMantenimientosProximosAVencer(fechaLimite, pagina, tamanio));
+    }
+
+    @GetMapping("/proximos-vencer/alertas")
+    public ResponseEntity<PaginaDto<MantenimientoVencimientoDto>> listarVencimientos(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaLimite,
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(defaultValue = "500") int tamanio) {
+        log.debug("Solicitud para listar alertas de vencimiento antes de: {}", fechaLimite);
+        return ResponseEntity.ok(mantenimientoService.listarVencimientos(fechaLimite, pagina, tamanio));
+    }
+
     @PostMapping
     public ResponseEntity<Mantenimiento> crear(@Valid @RequestBody MantenimientoRequestDto dto) {
         log.info("Solicitud para crear mantenimiento");
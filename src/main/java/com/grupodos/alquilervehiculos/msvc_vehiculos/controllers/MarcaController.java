@@ -3,14 +3,20 @@ package com.grupodos.alquilervehiculos.msvc_vehiculos.controllers;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.MarcaConModelosRequestDto;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Marca;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.services.MarcaService;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.services.VersionesAgregados;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.services.VersionesAgregados.Agregado;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -22,17 +28,23 @@ import java.util.List;
 public class MarcaController {
 
     private final MarcaService marcaService;
+    private final VersionesAgregados versionesAgregados;
+
+    @Value("${catalogo.http.max-age:60s}")
+    private Duration maxAge;
 
     @GetMapping
-    public ResponseEntity<List<Marca>> listarTodas() {
+    public ResponseEntity<List<Marca>> listarTodas(WebRequest request) {
         log.debug("Solicitud para listar todas las marcas");
-        return ResponseEntity.ok(marcaService.listarTodas());
+        return RespuestasCondicionales.responder(request, versionesAgregados.etag(Agregado.MARCAS),
+                CacheControl.maxAge(maxAge), marcaService::listarTodas);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Marca> obtenerPorId(@PathVariable Long id) {
+    public ResponseEntity<Marca> obtenerPorId(@PathVariable Long id, WebRequest request) {
         log.debug("Solicitud para obtener marca con ID: {}", id);
-        return ResponseEntity.ok(marcaService.obtenerPorId(id));
+        return RespuestasCondicionales.responder(request, versionesAgregados.etag(Agregado.MARCAS),
+                CacheControl.maxAge(maxAge), () -> marcaService.obtenerPorId(id));
     }
 
     @PostMapping
@@ -1,16 +1,23 @@
 package com.grupodos.alquilervehiculos.msvc_vehiculos.controllers;
 
 import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.ModeloRequestDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.ModelosLoteRequestDto;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Modelo;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.services.ModeloService;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.services.VersionesAgregados;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.services.VersionesAgregados.Agregado;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -22,23 +29,30 @@ import java.util.List;
 public class ModeloController {
 
     private final ModeloService modeloService;
+    private final VersionesAgregados versionesAgregados;
+
+    @Value("${catalogo.http.max-age:60s}")
+    private Duration maxAge;
 
     @GetMapping
-    public ResponseEntity<List<Modelo>> listarTodos() {
+    public ResponseEntity<List<Modelo>> listarTodos(WebRequest request) {
         log.debug("Solicitud para listar todos los modelos");
-        return ResponseEntity.ok(modeloService.listarTodos());
+        return RespuestasCondicionales.responder(request, versionesAgregados.etag(Agregado.MODELOS),
+                CacheControl.maxAge(maxAge), modeloService::listarTodos);
     }
 
     @GetMapping("/marca/{marcaId}")
-    public ResponseEntity<List<Modelo>> listarPorMarca(@PathVariable Long marcaId) {
+    public ResponseEntity<List<Modelo>> listarPorMarca(@PathVariable Long marcaId, WebRequest request) {
         log.debug("Solicitud para listar modelos por marca ID: {}", marcaId);
-        return ResponseEntity.ok(modeloService.listarPorMarca(marcaId));
+        return RespuestasCondicionales.responder(request, versionesAgregados.etag(Agregado.MODELOS),
+                CacheControl.maxAge(maxAge), () -> modeloService.listarPorMarca(marcaId));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Modelo> obtenerPorId(@PathVariable Long id) {
+    public ResponseEntity<Modelo> obtenerPorId(@PathVariable Long id, WebRequest request) {
         log.debug("Solicitud para obtener modelo con ID: {}", id);
-        return ResponseEntity.ok(modeloService.obtenerPorId(id));
+        return RespuestasCondicionales.responder(request, versionesAgregados.etag(Agregado.MODELOS),
+                CacheControl.maxAge(maxAge), () -> modeloService.obtenerPorId(id));
     }
 
     @PostMapping
@@ -47,6 +61,12 @@ public class ModeloController {
         return ResponseEntity.status(HttpStatus.CREATED).body(modeloService.crearModelo(modelo));
     }
 
+    @PostMapping("/lote")
+    public ResponseEntity<List<Modelo>> crearLote(@Valid @RequestBody ModelosLoteRequestDto dto) {
+        log.info("Solicitud para crear {} modelos para marca ID: {}", dto.nombres().size(), dto.marcaId());
+        return ResponseEntity.status(HttpStatus.CREATED).body(modeloService.crearModelos(dto.marcaId(), dto.nombres()));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Modelo> actualizar(@PathVariable Long id, @Valid @RequestBody ModeloRequestDto modelo) {
         log.info("Solicitud para actualizar modelo con ID: {}", id);
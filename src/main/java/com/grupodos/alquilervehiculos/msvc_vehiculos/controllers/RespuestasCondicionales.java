@@ -0,0 +1,26 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.controllers;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * GET condicional: si If-None-Match coincide con el ETag se responde 304 sin invocar al
+ * proveedor del cuerpo (ni base de datos ni serialización).
+ */
+final class RespuestasCondicionales {
+
+    private RespuestasCondicionales() {
+    }
+
+    static <T> ResponseEntity<T> responder(WebRequest request, String etag, CacheControl cacheControl,
+                                           Supplier<T> cuerpo) {
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(cuerpo.get());
+    }
+}
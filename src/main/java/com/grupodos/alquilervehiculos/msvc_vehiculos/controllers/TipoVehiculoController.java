@@ -2,12 +2,18 @@ package com.grupodos.alquilervehiculos.msvc_vehiculos.controllers;
 
 import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.TipoVehiculo;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.services.TipoVehiculoService;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.services.VersionesAgregados;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.services.VersionesAgregados.Agregado;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -19,16 +25,22 @@ import java.util.List;
 public class TipoVehiculoController {
 
     private final TipoVehiculoService tipoVehiculoService;
+    private final VersionesAgregados versionesAgregados;
+
+    @Value("${catalogo.http.max-age:60s}")
+    private Duration maxAge;
 
     @GetMapping
-    public ResponseEntity<List<TipoVehiculo>> listarTodos() {
+    public ResponseEntity<List<TipoVehiculo>> listarTodos(WebRequest request) {
         log.debug("Solicitud para listar todos los tipos de vehículo");
-        return ResponseEntity.ok(tipoVehiculoService.listarTodos());
+        return RespuestasCondicionales.responder(request, versionesAgregados.etag(Agregado.TIPOS),
+                CacheControl.maxAge(maxAge), tipoVehiculoService::listarTodos);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<TipoVehiculo> obtenerPorId(@PathVariable Long id) {
+    public ResponseEntity<TipoVehiculo> obtenerPorId(@PathVariable Long id, WebRequest request) {
         log.debug("Solicitud para obtener tipo de vehículo con ID: {}", id);
-        return ResponseEntity.ok(tipoVehiculoService.obtenerPorId(id));
+        return RespuestasCondicionales.responder(request, versionesAgregados.etag(Agregado.TIPOS),
+                CacheControl.maxAge(maxAge), () -> tipoVehiculoService.obtenerPorId(id));
     }
 }
@@ -1,20 +1,42 @@
 package com.grupodos.alquilervehiculos.msvc_vehiculos.controllers;
 
 import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.CambioEstadoRequest;
-import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.VehiculoContratoDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.ContratoLoteRequestDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.ContratoLoteResponseDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.ImportacionResultadoDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.PaginaCursorDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.ResumenFlotaDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.VehiculoFiltroDto;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.VehiculoRequestDto;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.VehiculoResponseDto;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Vehiculo;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.EstadoVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.services.CambiosVehiculoFeed;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.services.ImportacionVehiculosService;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.services.LecturasCoalescidas;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.services.ResumenFlota;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.services.VehiculoService;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.services.VersionesAgregados;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.UUID;
 
@@ -26,24 +48,50 @@ import java.util.UUID;
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
 public class VehiculoController {
 
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+    private static final String TEXT_CSV = "text/csv";
+    private static final String CSV_CABECERA = "id,placa,marca,modelo,tipoVehiculo,estado,activo\n";
+
     private final VehiculoService vehiculoService;
+    private final LecturasCoalescidas lecturasCoalescidas;
+    private final ImportacionVehiculosService importacionVehiculosService;
+    private final CambiosVehiculoFeed cambiosVehiculoFeed;
+    private final VersionesAgregados versionesAgregados;
+    private final ResumenFlota resumenFlota;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
-    public ResponseEntity<List<Vehiculo>> listarTodos() {
-        log.debug("Solicitud para listar todos los vehículos");
-        return ResponseEntity.ok(vehiculoService.listarTodos());
+    public ResponseEntity<PaginaCursorDto<VehiculoResponseDto>> listarTodos(
+            @ModelAttribute VehiculoFiltroDto filtro,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanio) {
+        log.debug("Solicitud para listar vehículos paginados");
+        return ResponseEntity.ok(vehiculoService.listarPaginado(filtro, cursor, tamanio));
     }
 
     @GetMapping("/disponibles")
-    public ResponseEntity<List<Vehiculo>> listarDisponibles() {
+    public ResponseEntity<byte[]> listarDisponibles() {
         log.debug("Solicitud para listar vehículos disponibles");
-        return ResponseEntity.ok(vehiculoService.listarDisponibles());
+        return json(lecturasCoalescidas.listarDisponibles());
+    }
+
+    @GetMapping(value = "/cambios", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter suscribirCambios(
+            @RequestHeader(value = "Last-Event-ID", required = false) String ultimoEventoId) {
+        log.debug("Suscripción a cambios de vehículos desde el evento: {}", ultimoEventoId);
+        return cambiosVehiculoFeed.suscribir(ultimoEventoId);
+    }
+
+    @GetMapping("/resumen")
+    public ResponseEntity<ResumenFlotaDto> obtenerResumen() {
+        log.debug("Solicitud para obtener resumen de flota");
+        return ResponseEntity.ok(resumenFlota.obtenerResumen());
     }
 
     @GetMapping("/estado/{estado}")
-    public ResponseEntity<List<Vehiculo>> listarPorEstado(@PathVariable EstadoVehiculo estado) {
+    public ResponseEntity<byte[]> listarPorEstado(@PathVariable EstadoVehiculo estado) {
         log.debug("Solicitud para listar vehículos por estado: {}", estado);
-        return ResponseEntity.ok(vehiculoService.listarPorEstado(estado));
+        return json(lecturasCoalescidas.listarPorEstado(estado));
     }
 
     @GetMapping("/marca/{marcaId}")
@@ -52,16 +100,30 @@ public class VehiculoController {
         return ResponseEntity.ok(vehiculoService.listarPorMarca(marcaId));
     }
 
+    @GetMapping("/marca/{marcaId}/total")
+    public ResponseEntity<Long> contarPorMarca(@PathVariable Long marcaId) {
+        log.debug("Solicitud para contar vehículos por marca ID: {}", marcaId);
+        return ResponseEntity.ok(vehiculoService.contarPorMarca(marcaId));
+    }
+
     @GetMapping("/tipo/{tipoId}")
     public ResponseEntity<List<Vehiculo>> listarPorTipo(@PathVariable Long tipoId) {
         log.debug("Solicitud para listar vehículos por tipo ID: {}", tipoId);
         return ResponseEntity.ok(vehiculoService.listarPorTipo(tipoId));
     }
 
+    @GetMapping("/tipo/{tipoId}/total")
+    public ResponseEntity<Long> contarPorTipo(@PathVariable Long tipoId) {
+        log.debug("Solicitud para contar vehículos por tipo ID: {}", tipoId);
+        return ResponseEntity.ok(vehiculoService.contarPorTipo(tipoId));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Vehiculo> obtenerPorId(@PathVariable UUID id) {
+    public ResponseEntity<Vehiculo> obtenerPorId(@PathVariable UUID id, WebRequest request) {
         log.debug("Solicitud para obtener vehículo con ID: {}", id);
-        return ResponseEntity.ok(vehiculoService.obtenerPorId(id));
+        // El estado cambia a menudo: el cliente siempre revalida, pero un 304 no toca la base de datos
+        return RespuestasCondicionales.responder(request, versionesAgregados.etagVehiculo(id),
+                CacheControl.noCache(), () -> vehiculoService.obtenerPorId(id));
     }
 
     @GetMapping("/{id}/disponible")
@@ -76,6 +138,19 @@ public class VehiculoController {
         return ResponseEntity.status(HttpStatus.CREATED).body(vehiculoService.crearVehiculo(vehiculo));
     }
 
+    // Sin @Valid: cada fila se valida en el servicio y sus errores (también filas null) se informan por fila
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportacionResultadoDto> importar(@RequestBody List<VehiculoRequestDto> vehiculos) {
+        log.info("Solicitud para importar {} vehículos", vehiculos.size());
+        return ResponseEntity.ok(importacionVehiculosService.importar(vehiculos));
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportacionResultadoDto> importarCsv(@RequestParam("archivo") MultipartFile archivo) {
+        log.info("Solicitud para importar vehículos desde CSV: {}", archivo.getOriginalFilename());
+        return ResponseEntity.ok(importacionVehiculosService.importarCsv(archivo));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Vehiculo> actualizar(@PathVariable UUID id, @Valid @RequestBody VehiculoRequestDto vehiculo) {
         log.info("Solicitud para actualizar vehículo con ID: {}", id);
@@ -102,18 +177,16 @@ public class VehiculoController {
     }
 
     @GetMapping("/contratos/{id}")
-    public ResponseEntity<VehiculoContratoDto> obtenerParaContrato(@PathVariable UUID id) {
+    public ResponseEntity<byte[]> obtenerParaContrato(@PathVariable UUID id) {
         log.debug("Solicitud para obtener vehículo para contrato con ID: {}", id);
-        Vehiculo v = vehiculoService.obtenerPorId(id);
-        VehiculoContratoDto dto = new VehiculoContratoDto(
-                v.getId(),
-                v.getPlaca(),
-                v.getModelo().getMarca().getNombre(),
-                v.getModelo().getNombre(),
-                v.getTipoVehiculo().getNombre(),
-                v.getEstado().name()
-        );
-        return ResponseEntity.ok(dto);
+        return json(lecturasCoalescidas.obtenerParaContrato(id));
+    }
+
+    @PostMapping("/contratos/batch")
+    public ResponseEntity<ContratoLoteResponseDto> obtenerParaContratos(
+            @Valid @RequestBody ContratoLoteRequestDto request) {
+        log.debug("Solicitud para obtener {} vehículos para contratos", request.ids().size());
+        return ResponseEntity.ok(vehiculoService.obtenerParaContratos(request.ids()));
     }
 
     @PutMapping("/{id}/estado")
@@ -130,4 +203,67 @@ public class VehiculoController {
         log.debug("Solicitud para listar vehículos para reportes");
         return ResponseEntity.ok(vehiculoService.listarTodosParaReportes());
     }
+
+    @GetMapping(value = "/para-reportes", produces = APPLICATION_NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportarParaReportesNdjson() {
+        log.debug("Solicitud para exportar vehículos para reportes en NDJSON");
+        return ResponseEntity.ok(salida -> {
+            BufferedOutputStream buffer = new BufferedOutputStream(salida);
+            vehiculoService.recorrerParaReportes(dto -> escribir(() -> {
+                buffer.write(objectMapper.writeValueAsBytes(dto));
+                buffer.write('\n');
+            }));
+            buffer.flush();
+        });
+    }
+
+    @GetMapping(value = "/para-reportes", produces = TEXT_CSV)
+    public ResponseEntity<StreamingResponseBody> exportarParaReportesCsv() {
+        log.debug("Solicitud para exportar vehículos para reportes en CSV");
+        return ResponseEntity.ok()
+                .header("Content-Disposition", "attachment; filename=\"vehiculos.csv\"")
+                .body(salida -> {
+                    BufferedOutputStream buffer = new BufferedOutputStream(salida);
+                    buffer.write(CSV_CABECERA.getBytes(StandardCharsets.UTF_8));
+                    vehiculoService.recorrerParaReportes(dto -> escribir(() ->
+                            buffer.write(filaCsv(dto).getBytes(StandardCharsets.UTF_8))));
+                    buffer.flush();
+                });
+    }
+
+    // Cuerpo ya serializado por LecturasCoalescidas: se comparte el mismo buffer entre peticiones idénticas
+    private static ResponseEntity<byte[]> json(byte[] cuerpo) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(cuerpo);
+    }
+
+    private static String filaCsv(VehiculoResponseDto dto) {
+        return String.join(",",
+                dto.id().toString(),
+                campoCsv(dto.placa()),
+                campoCsv(dto.marca()),
+                campoCsv(dto.modelo()),
+                campoCsv(dto.tipoVehiculo()),
+                dto.estado(),
+                String.valueOf(dto.activo())) + "\n";
+    }
+
+    private static String campoCsv(String valor) {
+        if (StringUtils.containsAny(valor, ',', '"', '\n', '\r')) {
+            return '"' + StringUtils.replace(valor, "\"", "\"\"") + '"';
+        }
+        return StringUtils.defaultString(valor);
+    }
+
+    private static void escribir(Escritura escritura) {
+        try {
+            escritura.ejecutar();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Escritura {
+        void ejecutar() throws IOException;
+    }
 }
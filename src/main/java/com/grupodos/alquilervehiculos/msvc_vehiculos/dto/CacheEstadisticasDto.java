@@ -0,0 +1,9 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.dto;
+
+public record CacheEstadisticasDto(
+        String nombre,
+        long aciertos,
+        long fallos,
+        long desalojos,
+        long entradas
+) {}
@@ -0,0 +1,12 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.dto;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.EstadoVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.TipoCombustible;
+
+public record ConteoResumenDto(
+        EstadoVehiculo estado,
+        String tipoVehiculo,
+        String marca,
+        TipoCombustible combustible,
+        Long cantidad
+) {}
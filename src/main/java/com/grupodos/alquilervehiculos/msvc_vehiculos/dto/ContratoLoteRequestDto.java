@@ -0,0 +1,12 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+import java.util.UUID;
+
+public record ContratoLoteRequestDto(
+        @NotEmpty(message = "Debe incluir al menos un vehículo")
+        List<@NotNull UUID> ids
+) {}
@@ -0,0 +1,9 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record ContratoLoteResponseDto(
+        List<VehiculoContratoDto> vehiculos,
+        List<UUID> noEncontrados
+) {}
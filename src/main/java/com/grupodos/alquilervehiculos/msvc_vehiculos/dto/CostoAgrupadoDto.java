@@ -0,0 +1,9 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.dto;
+
+import java.math.BigDecimal;
+
+public record CostoAgrupadoDto(
+        String grupo,  // placa, marca o tipo según el endpoint
+        Long cantidad,
+        BigDecimal costoTotal
+) {}
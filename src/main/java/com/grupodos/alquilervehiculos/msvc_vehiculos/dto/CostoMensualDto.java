@@ -0,0 +1,10 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.dto;
+
+import java.math.BigDecimal;
+
+public record CostoMensualDto(
+        Integer anio,
+        Integer mes,
+        Long cantidad,
+        BigDecimal costoTotal
+) {}
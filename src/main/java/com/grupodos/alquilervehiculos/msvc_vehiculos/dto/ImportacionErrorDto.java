@@ -0,0 +1,7 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.dto;
+
+public record ImportacionErrorDto(
+        int fila,
+        String placa,
+        String mensaje
+) {}
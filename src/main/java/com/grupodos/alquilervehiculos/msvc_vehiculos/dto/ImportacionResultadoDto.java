@@ -0,0 +1,9 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.dto;
+
+import java.util.List;
+
+public record ImportacionResultadoDto(
+        int total,
+        int creados,
+        List<ImportacionErrorDto> errores
+) {}
@@ -0,0 +1,10 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.dto;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public record MantenimientoVencimientoDto(
+        Long id,
+        UUID vehiculoId,
+        LocalDate fechaFin
+) {}
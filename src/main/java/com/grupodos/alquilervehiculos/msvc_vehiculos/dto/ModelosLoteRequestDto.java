@@ -0,0 +1,15 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public record ModelosLoteRequestDto(
+        @NotNull(message = "La marca es obligatoria")
+        Long marcaId,
+
+        @NotEmpty(message = "Debe incluir al menos un modelo")
+        List<@NotBlank String> nombres
+) {}
@@ -0,0 +1,9 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.dto;
+
+import java.util.List;
+
+public record PaginaCursorDto<T>(
+        List<T> contenido,
+        String siguienteCursor,  // null cuando no hay más páginas
+        int tamanio
+) {}
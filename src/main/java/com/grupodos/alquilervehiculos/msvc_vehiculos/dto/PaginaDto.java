@@ -0,0 +1,10 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.dto;
+
+import java.util.List;
+
+public record PaginaDto<T>(
+        List<T> contenido,
+        int pagina,
+        int tamanio,
+        boolean hayMas
+) {}
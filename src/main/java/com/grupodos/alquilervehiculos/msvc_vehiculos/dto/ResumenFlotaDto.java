@@ -0,0 +1,11 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.dto;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.EstadoVehiculo;
+
+import java.util.List;
+import java.util.Map;
+
+public record ResumenFlotaDto(
+        Map<EstadoVehiculo, Long> totalesPorEstado,
+        List<ConteoResumenDto> detalle
+) {}
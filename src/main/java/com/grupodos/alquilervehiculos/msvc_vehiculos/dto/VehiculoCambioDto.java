@@ -0,0 +1,11 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.dto;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.EstadoVehiculo;
+
+import java.util.UUID;
+
+public record VehiculoCambioDto(
+        UUID id,
+        EstadoVehiculo estado,
+        boolean activo
+) {}
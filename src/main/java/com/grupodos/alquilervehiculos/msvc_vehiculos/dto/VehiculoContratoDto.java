@@ -1,5 +1,7 @@
 package com.grupodos.alquilervehiculos.msvc_vehiculos.dto;
 
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.EstadoVehiculo;
+
 import java.util.UUID;
 
 public record VehiculoContratoDto(
@@ -9,4 +11,10 @@ public record VehiculoContratoDto(
         String modelo,  // solo el nombre o id que necesites
         String tipoVehiculo,
         String estado
-) {}
+) {
+    // Usado por las proyecciones JPQL de VehiculoRepository
+    public VehiculoContratoDto(UUID id, String placa, String marca, String modelo,
+                               String tipoVehiculo, EstadoVehiculo estado) {
+        this(id, placa, marca, modelo, tipoVehiculo, estado.name());
+    }
+}
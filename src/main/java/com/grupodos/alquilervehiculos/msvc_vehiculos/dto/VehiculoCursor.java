@@ -0,0 +1,38 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.dto;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Posición de la última fila entregada en el listado paginado (orden creadoEn, id).
+ * Se expone al cliente como un token opaco en Base64 URL-safe.
+ */
+public record VehiculoCursor(OffsetDateTime creadoEn, UUID id) {
+
+    private static final String SEPARADOR = "|";
+
+    public String codificar() {
+        String plano = creadoEn + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(plano.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static VehiculoCursor decodificar(String token) {
+        if (StringUtils.isBlank(token)) {
+            return null;
+        }
+        try {
+            String plano = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String creadoEn = StringUtils.substringBefore(plano, SEPARADOR);
+            String id = StringUtils.substringAfter(plano, SEPARADOR);
+            return new VehiculoCursor(OffsetDateTime.parse(creadoEn), UUID.fromString(id));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor de paginación inválido");
+        }
+    }
+}
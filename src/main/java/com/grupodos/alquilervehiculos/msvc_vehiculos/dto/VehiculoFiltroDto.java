@@ -0,0 +1,14 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.dto;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.EstadoVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.TipoCombustible;
+
+public record VehiculoFiltroDto(
+        EstadoVehiculo estado,
+        Long marcaId,
+        Long tipoId,
+        TipoCombustible combustible,
+        Boolean activo,
+        Integer anioDesde,
+        Integer anioHasta
+) {}
@@ -1,5 +1,6 @@
 package com.grupodos.alquilervehiculos.msvc_vehiculos.dto;
 
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.EstadoVehiculo;
 
 import java.util.UUID;
 
@@ -11,4 +12,10 @@ public record VehiculoResponseDto(
         String tipoVehiculo,
         String estado,
         Boolean activo
-) {}
+) {
+    // Usado por las proyecciones JPQL de VehiculoRepository
+    public VehiculoResponseDto(UUID id, String placa, String marca, String modelo,
+                               String tipoVehiculo, EstadoVehiculo estado, Boolean activo) {
+        this(id, placa, marca, modelo, tipoVehiculo, estado.name(), activo);
+    }
+}
@@ -0,0 +1,34 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.entities;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UUID versión 7 (RFC 9562): 48 bits de milisegundos Unix, 12 bits de contador y 62 bits aleatorios.
+ * Los ids nuevos crecen con el tiempo, así que los INSERT caen al final del índice de la PK en lugar de
+ * repartirse por todo el B-tree. La columna sigue siendo {@code uuid}: los ids v4 existentes no cambian.
+ */
+public class GeneradorUuidV7 implements UuidValueGenerator {
+
+    private static final SecureRandom ALEATORIO = new SecureRandom();
+
+    // (milisegundos << 12) | contador del último id emitido: estrictamente creciente dentro del proceso,
+    // aunque se generen más de 4096 ids en el mismo milisegundo o el reloj retroceda
+    private static final AtomicLong ULTIMO = new AtomicLong();
+
+    @Override
+    public UUID generateUuid(SharedSessionContractImplementor session) {
+        return generar();
+    }
+
+    public static UUID generar() {
+        long marca = ULTIMO.updateAndGet(anterior -> Math.max(System.currentTimeMillis() << 12, anterior + 1));
+        long masSignificativos = (marca >>> 12) << 16 | 0x7000L | (marca & 0xFFFL);
+        long menosSignificativos = ALEATORIO.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(masSignificativos, menosSignificativos);
+    }
+}
@@ -4,12 +4,17 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "marcas")
 @Getter
 @Setter
 @NoArgsConstructor
+// Catálogo de lectura frecuente: cache de segundo nivel de Hibernate (regiones en hibernate-cache.conf)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalogo-marca")
 public class Marca {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -4,15 +4,21 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "modelos")
 @Getter
 @Setter
 @NoArgsConstructor
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalogo-modelo")
 public class Modelo {
+    // Secuencia con pooled optimizer: permite agrupar los INSERT en batches JDBC (ver V2)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "modelos_seq")
+    @SequenceGenerator(name = "modelos_seq", sequenceName = "modelos_seq", allocationSize = 50)
     @Column(name = "id_modelo")
     private Long id;
 
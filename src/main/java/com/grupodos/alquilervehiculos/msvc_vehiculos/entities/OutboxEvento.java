@@ -0,0 +1,40 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "outbox_eventos")
+@Getter
+@Setter
+@NoArgsConstructor
+public class OutboxEvento {
+    // El relay publica en orden de id. Sin bloques preasignados (allocationSize = 1) el id sale de la secuencia
+    // al insertar, y OutboxService lo pide con la fila del vehículo bloqueada: para un mismo vehículo, los ids
+    // siguen el orden de commit aunque las escrituras vengan de instancias distintas
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_eventos_seq")
+    @SequenceGenerator(name = "outbox_eventos_seq", sequenceName = "outbox_eventos_seq", allocationSize = 1)
+    @Column(name = "id_evento")
+    private Long id;
+
+    @Column(name = "id_vehiculo", nullable = false)
+    private UUID vehiculoId;
+
+    @Column(nullable = false)
+    private String tipo;
+
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    @Column(name = "creado_en", nullable = false)
+    private OffsetDateTime creadoEn;
+
+    @Column(name = "publicado_en")
+    private OffsetDateTime publicadoEn;
+}
@@ -6,18 +6,21 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
 @Entity
+// Índices en db/migration (V5): los parciales "WHERE activo = true" no se pueden expresar con @Index
 @Table(name = "vehiculos")
 @Getter
 @Setter
 @NoArgsConstructor
 public class Vehiculo {
+    // UUID v7 ordenado por tiempo para los vehículos nuevos (ver GeneradorUuidV7)
     @Id
-    @GeneratedValue
+    @UuidGenerator(algorithm = GeneradorUuidV7.class)
     @Column(name = "id_vehiculo")
     private UUID id;
 
@@ -42,7 +45,7 @@ public class Vehiculo {
     @Column(nullable = false)
     private String descripcion;
 
-    @Column(name = "creado_en")
+    @Column(name = "creado_en", nullable = false)
     private OffsetDateTime creadoEn;
 
     @Enumerated(EnumType.STRING)
@@ -51,4 +54,8 @@ public class Vehiculo {
 
     @Column(nullable = false)
     private boolean activo;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
@@ -0,0 +1,21 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Una fila por catálogo (VersionesAgregados.Agregado); sin cache de segundo nivel: cada instancia debe ver la última
+@Entity
+@Table(name = "versiones_agregados")
+@Getter
+@Setter
+@NoArgsConstructor
+public class VersionAgregado {
+    @Id
+    @Column(length = 20)
+    private String agregado;
+
+    @Column(nullable = false)
+    private long version;
+}
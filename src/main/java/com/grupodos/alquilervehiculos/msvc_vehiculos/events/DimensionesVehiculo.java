@@ -0,0 +1,20 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.events;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Vehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.TipoCombustible;
+
+/**
+ * Atributos de catálogo por los que se agrupa el resumen de flota.
+ */
+public record DimensionesVehiculo(
+        String marca,
+        String tipoVehiculo,
+        TipoCombustible combustible
+) {
+    public static DimensionesVehiculo de(Vehiculo vehiculo) {
+        return new DimensionesVehiculo(
+                vehiculo.getModelo().getMarca().getNombre(),
+                vehiculo.getTipoVehiculo().getNombre(),
+                vehiculo.getCombustible());
+    }
+}
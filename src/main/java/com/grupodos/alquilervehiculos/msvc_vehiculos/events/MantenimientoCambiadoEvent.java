@@ -0,0 +1,13 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.events;
+
+import java.util.UUID;
+
+/**
+ * Publicado por {@code MantenimientoService} dentro de la transacción que crea, finaliza o elimina
+ * un mantenimiento.
+ */
+public record MantenimientoCambiadoEvent(
+        Long id,
+        UUID vehiculoId,
+        TipoCambioMantenimiento tipo
+) {}
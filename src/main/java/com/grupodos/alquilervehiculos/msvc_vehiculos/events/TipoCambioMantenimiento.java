@@ -0,0 +1,7 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.events;
+
+public enum TipoCambioMantenimiento {
+    CREADO,
+    FINALIZADO,
+    ELIMINADO
+}
@@ -0,0 +1,10 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.events;
+
+public enum TipoCambioVehiculo {
+    CREADO,
+    ACTUALIZADO,
+    ESTADO,
+    ELIMINADO,
+    RESTAURADO,
+    BORRADO
+}
@@ -0,0 +1,20 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.events;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.EstadoVehiculo;
+
+import java.util.UUID;
+
+/**
+ * Publicado por {@code VehiculoService} dentro de la transacción que modifica el vehículo.
+ * Los consumidores que solo deben ver datos confirmados escuchan con
+ * {@code @TransactionalEventListener(phase = AFTER_COMMIT)}.
+ */
+public record VehiculoCambiadoEvent(
+        UUID id,
+        TipoCambioVehiculo tipo,
+        EstadoVehiculo estadoAnterior,  // null en CREADO
+        EstadoVehiculo estado,
+        boolean activo,
+        DimensionesVehiculo dimensionesAnteriores,  // distintas de dimensiones solo en ACTUALIZADO
+        DimensionesVehiculo dimensiones
+) {}
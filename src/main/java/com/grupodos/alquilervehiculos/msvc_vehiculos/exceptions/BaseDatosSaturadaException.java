@@ -0,0 +1,9 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.exceptions;
+
+import java.time.Duration;
+
+public class BaseDatosSaturadaException extends RuntimeException {
+    public BaseDatosSaturadaException(Duration espera) {
+        super("No hay capacidad de base de datos disponible tras esperar " + espera.toMillis() + " ms");
+    }
+}
@@ -0,0 +1,12 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.exceptions;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.EstadoVehiculo;
+
+import java.util.UUID;
+
+public class ConflictoEstadoVehiculoException extends RuntimeException {
+    public ConflictoEstadoVehiculoException(UUID id, EstadoVehiculo esperado, EstadoVehiculo nuevo) {
+        super("El vehículo " + id + " cambió de estado concurrentemente; no se pudo pasar de "
+                + esperado + " a " + nuevo);
+    }
+}
@@ -1,8 +1,10 @@
 package com.grupodos.alquilervehiculos.msvc_vehiculos.exceptions;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -19,6 +21,31 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
     }
 
+    // El cliente puede releer el vehículo y reintentar la operación
+    @ExceptionHandler({
+            ConflictoEstadoVehiculoException.class,
+            ObjectOptimisticLockingFailureException.class
+    })
+    public ResponseEntity<ErrorResponse> handleConcurrentModification(RuntimeException ex) {
+        log.warn("Modificación concurrente: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse("CONFLICTO_CONCURRENCIA",
+                "El vehículo fue modificado por otra operación; vuelva a consultarlo y reintente");
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
+    // Rechazo rápido del bulkhead: mejor un 503 reintentable que una cola sin límite de conexiones
+    @ExceptionHandler(BaseDatosSaturadaException.class)
+    public ResponseEntity<ErrorResponse> handleBaseDatosSaturada(BaseDatosSaturadaException ex) {
+        log.warn("Solicitud rechazada por saturación: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse("SERVICIO_SATURADO",
+                "El servicio está saturado; reintente en unos segundos");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
     @ExceptionHandler({
             VehiculoNotFoundException.class,
             MarcaNotFoundException.class,
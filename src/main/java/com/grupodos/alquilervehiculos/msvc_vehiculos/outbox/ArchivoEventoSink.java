@@ -0,0 +1,50 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.OutboxEvento;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Agrega cada evento como una línea NDJSON a un archivo local.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "archivo", matchIfMissing = true)
+public class ArchivoEventoSink implements EventoSink {
+
+    private final Path archivo;
+    private final ObjectMapper objectMapper;
+
+    public ArchivoEventoSink(@Value("${outbox.archivo:${java.io.tmpdir}/msvc-vehiculos-outbox.ndjson}") Path archivo,
+                             ObjectMapper objectMapper) {
+        this.archivo = archivo;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized void publicar(List<OutboxEvento> eventos) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (OutboxEvento evento : eventos) {
+                ObjectNode linea = objectMapper.createObjectNode()
+                        .put("id", evento.getId())
+                        .put("vehiculoId", evento.getVehiculoId().toString())
+                        .put("tipo", evento.getTipo())
+                        .put("creadoEn", evento.getCreadoEn().toString());
+                linea.set("payload", objectMapper.readTree(evento.getPayload()));
+                writer.write(objectMapper.writeValueAsString(linea));
+                writer.write('\n');
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.outbox;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.OutboxEvento;
+
+import java.util.List;
+
+/**
+ * Destino de los eventos del outbox. Recibe los lotes en orden de id y debe lanzar excepción si
+ * no pudo entregarlos; el relay reintentará el mismo lote (entrega al menos una vez).
+ * Implementaciones: archivo NDJSON y memoria (pruebas), y {@link KafkaRestEventoSink} como adaptador de broker.
+ */
+public interface EventoSink {
+
+    void publicar(List<OutboxEvento> eventos) throws Exception;
+}
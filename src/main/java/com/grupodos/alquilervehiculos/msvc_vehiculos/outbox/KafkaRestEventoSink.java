@@ -0,0 +1,64 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.OutboxEvento;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Publica cada lote en un tópico de Kafka a través de su REST Proxy (API v2), en un solo POST.
+ * La clave de cada registro es el id del vehículo: Kafka lo manda siempre a la misma partición y conserva
+ * el orden por vehículo. Una respuesta de error lanza excepción y el relay reintenta el lote.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "kafka-rest")
+public class KafkaRestEventoSink implements EventoSink {
+
+    static final MediaType KAFKA_JSON = MediaType.parseMediaType("application/vnd.kafka.json.v2+json");
+
+    private final RestClient restClient;
+    private final ObjectMapper objectMapper;
+    private final String topico;
+
+    public KafkaRestEventoSink(RestClient.Builder restClientBuilder,
+                               ObjectMapper objectMapper,
+                               @Value("${outbox.kafka-rest.url}") String url,
+                               @Value("${outbox.kafka-rest.topico:vehiculos-cambios}") String topico) {
+        this.restClient = restClientBuilder.baseUrl(url).build();
+        this.objectMapper = objectMapper;
+        this.topico = topico;
+    }
+
+    @Override
+    public void publicar(List<OutboxEvento> eventos) throws IOException {
+        ObjectNode cuerpo = objectMapper.createObjectNode();
+        ArrayNode registros = cuerpo.putArray("records");
+        for (OutboxEvento evento : eventos) {
+            ObjectNode valor = objectMapper.createObjectNode()
+                    .put("id", evento.getId())
+                    .put("vehiculoId", evento.getVehiculoId().toString())
+                    .put("tipo", evento.getTipo())
+                    .put("creadoEn", evento.getCreadoEn().toString());
+            valor.set("payload", objectMapper.readTree(evento.getPayload()));
+            registros.addObject()
+                    .put("key", evento.getVehiculoId().toString())
+                    .set("value", valor);
+        }
+
+        restClient.post()
+                .uri("/topics/{topico}", topico)
+                .contentType(KAFKA_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .body(objectMapper.writeValueAsString(cuerpo))
+                .retrieve()
+                .toBodilessEntity();
+    }
+}
@@ -0,0 +1,27 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.outbox;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.OutboxEvento;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Guarda los eventos publicados en memoria. Pensado para pruebas.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "memoria")
+public class MemoriaEventoSink implements EventoSink {
+
+    private final List<OutboxEvento> publicados = new ArrayList<>();
+
+    @Override
+    public synchronized void publicar(List<OutboxEvento> eventos) {
+        publicados.addAll(eventos);
+    }
+
+    public synchronized List<OutboxEvento> getPublicados() {
+        return List.copyOf(publicados);
+    }
+}
@@ -0,0 +1,78 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.outbox;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.OutboxEvento;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.OutboxEventoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Publica periódicamente los eventos pendientes del outbox en lotes, en orden de id.
+ * El lote se marca como publicado en la misma transacción que lo bloqueó: si el sink falla o la
+ * instancia cae antes del commit, el lote completo se reintenta (entrega al menos una vez).
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventoRepository outboxEventoRepository;
+    private final EventoSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanioLote;
+    private final Duration retencion;
+
+    public OutboxRelay(OutboxEventoRepository outboxEventoRepository,
+                       EventoSink sink,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${outbox.relay.tamanio-lote:200}") int tamanioLote,
+                       @Value("${outbox.relay.retencion:7d}") Duration retencion) {
+        this.outboxEventoRepository = outboxEventoRepository;
+        this.sink = sink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanioLote = tamanioLote;
+        this.retencion = retencion;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.intervalo:1s}")
+    public void publicarPendientes() {
+        int publicados;
+        do {
+            publicados = transactionTemplate.execute(status -> publicarLote());
+        } while (publicados == tamanioLote);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.intervalo-limpieza:1h}")
+    public void limpiarPublicados() {
+        Integer eliminados = transactionTemplate.execute(status ->
+                outboxEventoRepository.deletePublicadosAntesDe(OffsetDateTime.now().minus(retencion)));
+        log.debug("Eventos de outbox publicados eliminados: {}", eliminados);
+    }
+
+    private int publicarLote() {
+        List<OutboxEvento> pendientes = outboxEventoRepository.findByPublicadoEnIsNullOrderByIdAsc(Limit.of(tamanioLote));
+        if (pendientes.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            sink.publicar(pendientes);
+        } catch (Exception e) {
+            log.warn("No se pudo publicar un lote de {} eventos de outbox; se reintentará: {}",
+                    pendientes.size(), e.getMessage());
+            return 0;
+        }
+
+        OffsetDateTime ahora = OffsetDateTime.now();
+        pendientes.forEach(evento -> evento.setPublicadoEn(ahora));
+        log.debug("Publicados {} eventos de outbox", pendientes.size());
+        return pendientes.size();
+    }
+}
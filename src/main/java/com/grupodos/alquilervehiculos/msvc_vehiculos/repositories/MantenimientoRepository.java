@@ -1,9 +1,19 @@
 package com.grupodos.alquilervehiculos.msvc_vehiculos.repositories;
 
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.CostoAgrupadoDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.CostoMensualDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.MantenimientoVencimientoDto;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Mantenimiento;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -12,5 +22,75 @@ public interface MantenimientoRepository extends JpaRepository<Mantenimiento, Lo
     List<Mantenimiento> findByVehiculoId(UUID vehiculoId);
     List<Mantenimiento> findByVehiculoIdAndFinalizadoFalse(UUID vehiculoId);
     List<Mantenimiento> findByFinalizadoFalse();
+    long countByFinalizadoFalse();
+
+    // Predicado cubierto por el índice parcial idx_mantenimientos_fecha_fin_abiertos (V3)
+    @EntityGraph(attributePaths = {"vehiculo.modelo.marca", "vehiculo.tipoVehiculo"})
+    Slice<Mantenimiento> findByFinalizadoFalseAndFechaFinBeforeOrderByFechaFinAscIdAsc(
+            LocalDate fechaLimite, Pageable pageable);
+
+    @Query("""
+            select new com.grupodos.alquilervehiculos.msvc_vehiculos.dto.MantenimientoVencimientoDto(
+                m.id, m.vehiculo.id, m.fechaFin)
+            from Mantenimiento m
+            where m.finalizado = false and m.fechaFin < :fechaLimite
+            order by m.fechaFin, m.id
+            """)
+    Slice<MantenimientoVencimientoDto> findVencimientos(@Param("fechaLimite") LocalDate fechaLimite,
+                                                        Pageable pageable);
     List<Mantenimiento> findByVehiculoIdAndFinalizadoTrueOrderByFechaFinDesc(UUID vehiculoId);
+
+    @Query("select coalesce(sum(m.costo), 0) from Mantenimiento m where m.vehiculo.id = :vehiculoId")
+    BigDecimal sumCostoByVehiculoId(@Param("vehiculoId") UUID vehiculoId);
+
+    // Agregados de flota: un GROUP BY por consulta, filtrable por rango de fecha de inicio
+    @Query("""
+            select new com.grupodos.alquilervehiculos.msvc_vehiculos.dto.CostoAgrupadoDto(
+                v.placa, count(m), sum(m.costo))
+            from Mantenimiento m
+            join m.vehiculo v
+            where (:desde is null or m.fechaInicio >= :desde)
+              and (:hasta is null or m.fechaInicio <= :hasta)
+            group by v.id, v.placa
+            order by sum(m.costo) desc
+            """)
+    List<CostoAgrupadoDto> sumCostoPorVehiculo(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    @Query("""
+            select new com.grupodos.alquilervehiculos.msvc_vehiculos.dto.CostoAgrupadoDto(
+                ma.nombre, count(m), sum(m.costo))
+            from Mantenimiento m
+            join m.vehiculo v
+            join v.modelo mo
+            join mo.marca ma
+            where (:desde is null or m.fechaInicio >= :desde)
+              and (:hasta is null or m.fechaInicio <= :hasta)
+            group by ma.nombre
+            order by sum(m.costo) desc
+            """)
+    List<CostoAgrupadoDto> sumCostoPorMarca(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    @Query("""
+            select new com.grupodos.alquilervehiculos.msvc_vehiculos.dto.CostoAgrupadoDto(
+                t.nombre, count(m), sum(m.costo))
+            from Mantenimiento m
+            join m.vehiculo v
+            join v.tipoVehiculo t
+            where (:desde is null or m.fechaInicio >= :desde)
+              and (:hasta is null or m.fechaInicio <= :hasta)
+            group by t.nombre
+            order by sum(m.costo) desc
+            """)
+    List<CostoAgrupadoDto> sumCostoPorTipo(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    @Query("""
+            select new com.grupodos.alquilervehiculos.msvc_vehiculos.dto.CostoMensualDto(
+                year(m.fechaInicio), month(m.fechaInicio), count(m), sum(m.costo))
+            from Mantenimiento m
+            where (:desde is null or m.fechaInicio >= :desde)
+              and (:hasta is null or m.fechaInicio <= :hasta)
+            group by year(m.fechaInicio), month(m.fechaInicio)
+            order by year(m.fechaInicio), month(m.fechaInicio)
+            """)
+    List<CostoMensualDto> sumCostoPorMes(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
 }
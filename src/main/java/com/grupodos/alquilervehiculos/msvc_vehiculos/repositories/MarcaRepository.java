@@ -1,7 +1,10 @@
 package com.grupodos.alquilervehiculos.msvc_vehiculos.repositories;
 
 import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Marca;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,5 +12,10 @@ import java.util.Optional;
 @Repository
 public interface MarcaRepository extends JpaRepository<Marca, Long> {
     boolean existsByNombre(String nombre);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "catalogo-consultas")
+    })
     Optional<Marca> findByNombre(String nombre);
 }
@@ -1,13 +1,28 @@
 package com.grupodos.alquilervehiculos.msvc_vehiculos.repositories;
 
 import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Modelo;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 @Repository
 public interface ModeloRepository extends JpaRepository<Modelo, Long> {
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "catalogo-consultas")
+    })
     List<Modelo> findByMarcaId(Long marcaId);
+
     boolean existsByNombreAndMarcaId(String nombre, Long marcaId);
+
+    @Query("select m.nombre from Modelo m where m.marca.id = :marcaId and m.nombre in :nombres")
+    Set<String> findNombresExistentes(@Param("marcaId") Long marcaId, @Param("nombres") Collection<String> nombres);
 }
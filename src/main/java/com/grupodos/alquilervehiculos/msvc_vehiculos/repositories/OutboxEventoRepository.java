@@ -0,0 +1,33 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.repositories;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.OutboxEvento;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventoRepository extends JpaRepository<OutboxEvento, Long> {
+
+    // FOR UPDATE sin SKIP LOCKED: un segundo relay espera, así se conserva el orden por vehículo
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<OutboxEvento> findByPublicadoEnIsNullOrderByIdAsc(Limit limit);
+
+    // Sin bloqueo: CambiosOutboxLector solo lee lo confirmado, publicado o no
+    List<OutboxEvento> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("select max(e.id) from OutboxEvento e")
+    Optional<Long> findMaxId();
+
+    @Modifying
+    @Query("delete from OutboxEvento e where e.publicadoEn < :limite")
+    int deletePublicadosAntesDe(@Param("limite") OffsetDateTime limite);
+}
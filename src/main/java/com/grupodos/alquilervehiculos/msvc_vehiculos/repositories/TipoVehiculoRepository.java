@@ -1,12 +1,19 @@
 package com.grupodos.alquilervehiculos.msvc_vehiculos.repositories;
 
 import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.TipoVehiculo;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
 public interface TipoVehiculoRepository extends JpaRepository<TipoVehiculo, Long> {
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "catalogo-consultas")
+    })
     Optional<TipoVehiculo> findByNombre(String nombre);
 }
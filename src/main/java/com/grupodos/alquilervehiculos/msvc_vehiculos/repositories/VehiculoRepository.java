@@ -1,20 +1,138 @@
 package com.grupodos.alquilervehiculos.msvc_vehiculos.repositories;
 
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.ConteoResumenDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.VehiculoContratoDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.VehiculoResponseDto;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Vehiculo;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.EstadoVehiculo;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface VehiculoRepository extends JpaRepository<Vehiculo, UUID> {
-    List<Vehiculo> findByModeloMarcaId(Long marcaId);
-    List<Vehiculo> findByTipoVehiculoId(Long tipoId);
+public interface VehiculoRepository extends JpaRepository<Vehiculo, UUID>, JpaSpecificationExecutor<Vehiculo> {
+    @Override
+    @EntityGraph(attributePaths = {"modelo.marca", "tipoVehiculo"})
+    Optional<Vehiculo> findById(UUID id);
+
+    @EntityGraph(attributePaths = {"modelo.marca", "tipoVehiculo"})
+    List<Vehiculo> findByModeloMarcaIdAndActivoTrue(Long marcaId);
+
+    @EntityGraph(attributePaths = {"modelo.marca", "tipoVehiculo"})
+    List<Vehiculo> findByTipoVehiculoIdAndActivoTrue(Integer tipoId);
+
+    long countByModeloMarcaIdAndActivoTrue(Long marcaId);
+    long countByTipoVehiculoIdAndActivoTrue(Integer tipoId);
+
+    @Query("""
+            select new com.grupodos.alquilervehiculos.msvc_vehiculos.dto.ConteoResumenDto(
+                v.estado, t.nombre, ma.nombre, v.combustible, count(v))
+            from Vehiculo v
+            join v.tipoVehiculo t
+            join v.modelo mo
+            join mo.marca ma
+            where v.activo = true
+            group by v.estado, t.nombre, ma.nombre, v.combustible
+            """)
+    List<ConteoResumenDto> countActivosPorResumen();
+
     boolean existsByPlaca(String placa);
+
+    @Query("select v.placa from Vehiculo v where v.placa in :placas")
+    Set<String> findPlacasExistentes(@Param("placas") Collection<String> placas);
+
+    @Query("select v.estado from Vehiculo v where v.id = :id")
+    Optional<EstadoVehiculo> findEstadoById(@Param("id") UUID id);
+
+    @Query("select v.version from Vehiculo v where v.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
+    // Serializa a quienes registran eventos del mismo vehículo hasta el commit (ver OutboxService)
+    @Query(value = "SELECT 1 FROM vehiculos WHERE id_vehiculo = :id FOR UPDATE", nativeQuery = true)
+    List<Integer> bloquearPorId(@Param("id") UUID id);
+
+    // Transición atómica: solo gana quien todavía ve el estado esperado. Sin clearAutomatically: vaciar
+    // la sesión desligaría las entidades del llamador; VehiculoService refresca solo el vehículo afectado
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update Vehiculo v
+            set v.estado = :nuevo, v.version = v.version + 1
+            where v.id = :id and v.estado = :esperado
+            """)
+    int actualizarEstadoSiCoincide(@Param("id") UUID id,
+                                   @Param("esperado") EstadoVehiculo esperado,
+                                   @Param("nuevo") EstadoVehiculo nuevo);
+
+    @EntityGraph(attributePaths = {"modelo.marca", "tipoVehiculo"})
     Optional<Vehiculo> findByIdAndActivoTrue(UUID id);
+
+    @EntityGraph(attributePaths = {"modelo.marca", "tipoVehiculo"})
     List<Vehiculo> findByEstadoAndActivoTrue(EstadoVehiculo estado);
+
+    @EntityGraph(attributePaths = {"modelo.marca", "tipoVehiculo"})
     List<Vehiculo> findByEstadoInAndActivoTrue(List<EstadoVehiculo> estados);
+
+    // Proyecciones: una sola consulta con joins, sin entidades administradas
+    @Query("""
+            select new com.grupodos.alquilervehiculos.msvc_vehiculos.dto.VehiculoResponseDto(
+                v.id, v.placa, ma.nombre, mo.nombre, t.nombre, v.estado, v.activo)
+            from Vehiculo v
+            join v.modelo mo
+            join mo.marca ma
+            join v.tipoVehiculo t
+            order by v.creadoEn, v.id
+            """)
+    List<VehiculoResponseDto> findAllParaReportes();
+
+    // Misma proyección recorrida con un cursor de solo avance para las exportaciones
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.grupodos.alquilervehiculos.msvc_vehiculos.dto.VehiculoResponseDto(
+                v.id, v.placa, ma.nombre, mo.nombre, t.nombre, v.estado, v.activo)
+            from Vehiculo v
+            join v.modelo mo
+            join mo.marca ma
+            join v.tipoVehiculo t
+            order by v.creadoEn, v.id
+            """)
+    Stream<VehiculoResponseDto> streamAllParaReportes();
+
+    @Query("""
+            select new com.grupodos.alquilervehiculos.msvc_vehiculos.dto.VehiculoContratoDto(
+                v.id, v.placa, ma.nombre, mo.nombre, t.nombre, v.estado)
+            from Vehiculo v
+            join v.modelo mo
+            join mo.marca ma
+            join v.tipoVehiculo t
+            where v.id = :id
+            """)
+    Optional<VehiculoContratoDto> findContratoById(@Param("id") UUID id);
+
+    @Query("""
+            select new com.grupodos.alquilervehiculos.msvc_vehiculos.dto.VehiculoContratoDto(
+                v.id, v.placa, ma.nombre, mo.nombre, t.nombre, v.estado)
+            from Vehiculo v
+            join v.modelo mo
+            join mo.marca ma
+            join v.tipoVehiculo t
+            where v.id in :ids
+            """)
+    List<VehiculoContratoDto> findContratosByIdIn(@Param("ids") Collection<UUID> ids);
 }
\ No newline at end of file
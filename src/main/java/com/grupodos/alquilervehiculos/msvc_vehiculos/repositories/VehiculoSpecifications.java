@@ -0,0 +1,62 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.repositories;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.VehiculoCursor;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.VehiculoFiltroDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Vehiculo;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class VehiculoSpecifications {
+
+    private VehiculoSpecifications() {
+    }
+
+    /**
+     * Filtros combinados más la condición keyset {@code (creadoEn, id) > cursor}.
+     * Los catálogos se traen con fetch join para resolver la página en una sola consulta.
+     */
+    public static Specification<Vehiculo> listado(VehiculoFiltroDto filtro, VehiculoCursor cursor) {
+        return (root, query, cb) -> {
+            if (query.getResultType() != Long.class) {
+                root.fetch("modelo").fetch("marca");
+                root.fetch("tipoVehiculo");
+            }
+
+            List<Predicate> predicados = new ArrayList<>();
+            if (filtro.estado() != null) {
+                predicados.add(cb.equal(root.get("estado"), filtro.estado()));
+            }
+            if (filtro.marcaId() != null) {
+                predicados.add(cb.equal(root.get("modelo").get("marca").get("id"), filtro.marcaId()));
+            }
+            if (filtro.tipoId() != null) {
+                predicados.add(cb.equal(root.get("tipoVehiculo").get("id"), filtro.tipoId().intValue()));
+            }
+            if (filtro.combustible() != null) {
+                predicados.add(cb.equal(root.get("combustible"), filtro.combustible()));
+            }
+            if (filtro.activo() != null) {
+                predicados.add(cb.equal(root.get("activo"), filtro.activo()));
+            }
+            if (filtro.anioDesde() != null) {
+                predicados.add(cb.greaterThanOrEqualTo(root.get("anioFabricacion"), filtro.anioDesde()));
+            }
+            if (filtro.anioHasta() != null) {
+                predicados.add(cb.lessThanOrEqualTo(root.get("anioFabricacion"), filtro.anioHasta()));
+            }
+            if (cursor != null) {
+                predicados.add(cb.or(
+                        cb.greaterThan(root.get("creadoEn"), cursor.creadoEn()),
+                        cb.and(
+                                cb.equal(root.get("creadoEn"), cursor.creadoEn()),
+                                cb.greaterThan(root.get("id"), cursor.id())
+                        )
+                ));
+            }
+            return cb.and(predicados.toArray(Predicate[]::new));
+        };
+    }
+}
@@ -0,0 +1,18 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.repositories;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.VersionAgregado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface VersionAgregadoRepository extends JpaRepository<VersionAgregado, String> {
+
+    @Modifying
+    @Query("update VersionAgregado v set v.version = v.version + 1 where v.agregado in :agregados")
+    int incrementar(@Param("agregados") Collection<String> agregados);
+}
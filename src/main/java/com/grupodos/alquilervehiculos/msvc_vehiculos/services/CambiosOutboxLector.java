@@ -0,0 +1,136 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.VehiculoCambioDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.OutboxEvento;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.EstadoVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.events.TipoCambioVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.OutboxEventoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Alimenta {@link CambiosVehiculoFeed} e invalida las versiones de vehículo de {@link VersionesAgregados}
+ * desde la tabla outbox, que escriben todas las instancias en la misma transacción que el cambio. Lee por id creciente desde el último leído. El id se asigna antes del commit,
+ * así que un id que falta entre dos leídos puede ser una transacción todavía abierta: se vuelve a buscar
+ * hasta que aparece o vence la espera (transacción revertida). El orden por vehículo se conserva porque
+ * sus ids siguen el orden de commit (ver OutboxService).
+ */
+@Component
+@Slf4j
+public class CambiosOutboxLector {
+
+    private static final String PREFIJO_VEHICULO = "VEHICULO_";
+    // Un salto mayor no es un hueco de transacciones abiertas (p. ej. la secuencia se reinició)
+    private static final int MAXIMO_HUECOS = 1000;
+
+    private final OutboxEventoRepository outboxEventoRepository;
+    private final CambiosVehiculoFeed feed;
+    private final VersionesAgregados versionesAgregados;
+    private final ObjectMapper objectMapper;
+    private final int tamanioLote;
+    private final Duration esperaHuecos;
+
+    // Id faltante -> cuándo se detectó. Solo lo usa el hilo del scheduler (método sincronizado)
+    private final Map<Long, Instant> huecos = new LinkedHashMap<>();
+    private Long ultimoLeido;
+
+    public CambiosOutboxLector(OutboxEventoRepository outboxEventoRepository,
+                               CambiosVehiculoFeed feed,
+                               VersionesAgregados versionesAgregados,
+                               ObjectMapper objectMapper,
+                               @Value("${vehiculos.cambios.lote:500}") int tamanioLote,
+                               @Value("${vehiculos.cambios.espera-huecos:1m}") Duration esperaHuecos) {
+        this.outboxEventoRepository = outboxEventoRepository;
+        this.feed = feed;
+        this.versionesAgregados = versionesAgregados;
+        this.objectMapper = objectMapper;
+        this.tamanioLote = tamanioLote;
+        this.esperaHuecos = esperaHuecos;
+    }
+
+    @Scheduled(fixedDelayString = "${vehiculos.cambios.intervalo:500ms}")
+    public synchronized void leerNuevos() {
+        if (ultimoLeido == null) {
+            // Se difunde lo confirmado desde el arranque; lo anterior lo cubre el listado completo
+            ultimoLeido = outboxEventoRepository.findMaxId().orElse(0L);
+            // Una versión cargada antes de este punto pudo perder su invalidación
+            versionesAgregados.olvidarVehiculos();
+            return;
+        }
+        releerHuecos();
+
+        List<OutboxEvento> nuevos;
+        do {
+            nuevos = outboxEventoRepository.findByIdGreaterThanOrderByIdAsc(ultimoLeido, Limit.of(tamanioLote));
+            for (OutboxEvento evento : nuevos) {
+                registrarHuecos(evento.getId());
+                ultimoLeido = evento.getId();
+                difundir(evento);
+            }
+        } while (nuevos.size() == tamanioLote);
+    }
+
+    private void registrarHuecos(long id) {
+        long faltantes = id - ultimoLeido - 1;
+        if (faltantes > MAXIMO_HUECOS) {
+            log.warn("Salto de {} ids en el outbox ({} -> {}); no se esperan", faltantes, ultimoLeido, id);
+            return;
+        }
+        Instant ahora = Instant.now();
+        for (long faltante = ultimoLeido + 1; faltante < id; faltante++) {
+            huecos.put(faltante, ahora);
+        }
+    }
+
+    private void releerHuecos() {
+        if (huecos.isEmpty()) {
+            return;
+        }
+        List<OutboxEvento> tardios = outboxEventoRepository.findAllById(huecos.keySet()).stream()
+                .sorted(Comparator.comparing(OutboxEvento::getId))
+                .toList();
+        for (OutboxEvento evento : tardios) {
+            huecos.remove(evento.getId());
+            difundir(evento);
+        }
+
+        Instant limite = Instant.now().minus(esperaHuecos);
+        huecos.values().removeIf(detectado -> !detectado.isAfter(limite));
+        while (huecos.size() > MAXIMO_HUECOS) {
+            huecos.remove(huecos.keySet().iterator().next());
+        }
+    }
+
+    private void difundir(OutboxEvento evento) {
+        versionesAgregados.olvidarVehiculo(evento.getVehiculoId());
+        // Los eventos de mantenimiento que cambian el estado ya llegan como VEHICULO_ESTADO
+        if (!evento.getTipo().startsWith(PREFIJO_VEHICULO)) {
+            return;
+        }
+        try {
+            JsonNode payload = objectMapper.readTree(evento.getPayload());
+            TipoCambioVehiculo tipo = TipoCambioVehiculo.valueOf(payload.path("tipo").asText());
+            boolean activo = payload.path("activo").asBoolean() && tipo != TipoCambioVehiculo.BORRADO;
+            feed.difundir(new VehiculoCambioDto(
+                    UUID.fromString(payload.path("id").asText()),
+                    EstadoVehiculo.valueOf(payload.path("estado").asText()),
+                    activo));
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.warn("Evento de outbox {} ilegible para el feed de cambios: {}", evento.getId(), e.getMessage());
+        }
+    }
+}
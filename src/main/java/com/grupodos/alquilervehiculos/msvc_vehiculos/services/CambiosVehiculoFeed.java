@@ -0,0 +1,216 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.services;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.VehiculoCambioDto;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Difunde por SSE los cambios confirmados de vehículos ({id, estado, activo}). Los cambios llegan de
+ * {@link CambiosOutboxLector}, que lee la tabla outbox compartida: cada instancia difunde también lo que se
+ * confirmó en las demás.
+ * Los últimos cambios se conservan en un buffer circular para que un cliente que se reconecta
+ * con Last-Event-ID reciba solo lo que se perdió. La secuencia de los ids es local a la instancia (lleva el
+ * instante de arranque como prefijo): si el id lo emitió otra instancia o un arranque anterior, o lo que
+ * falta ya salió del buffer, se le envía un evento "reinicio" para que recargue el listado completo.
+ * Cada cliente tiene una cola acotada; si no la vacía a tiempo se cierra su conexión en lugar
+ * de frenar a los demás (al reconectar retoma desde el buffer).
+ */
+@Component
+@Slf4j
+public class CambiosVehiculoFeed {
+
+    private static final String EVENTO_CAMBIO = "vehiculo";
+    private static final String EVENTO_REINICIO = "reinicio";
+
+    private final int tamanioBuffer;
+    private final int tamanioCola;
+    private final Duration timeout;
+
+    private final Deque<CambioRegistrado> buffer = new ArrayDeque<>();
+    private final Set<Suscriptor> suscriptores = new CopyOnWriteArraySet<>();
+    private final ExecutorService envios = Executors.newVirtualThreadPerTaskExecutor();
+    private final String arranque = Long.toString(System.currentTimeMillis(), 36);
+    private long secuencia;
+
+    public CambiosVehiculoFeed(@Value("${vehiculos.cambios.buffer:1024}") int tamanioBuffer,
+                               @Value("${vehiculos.cambios.cola-por-cliente:256}") int tamanioCola,
+                               @Value("${vehiculos.cambios.timeout:30m}") Duration timeout) {
+        this.tamanioBuffer = tamanioBuffer;
+        this.tamanioCola = tamanioCola;
+        this.timeout = timeout;
+    }
+
+    public SseEmitter suscribir(String ultimoEventoId) {
+        SseEmitter emitter = crearEmitter();
+        Suscriptor suscriptor = new Suscriptor(emitter, new ArrayBlockingQueue<>(tamanioCola));
+        emitter.onCompletion(() -> suscriptores.remove(suscriptor));
+        emitter.onTimeout(() -> suscriptores.remove(suscriptor));
+        emitter.onError(e -> suscriptores.remove(suscriptor));
+
+        // Reenvío y alta bajo el mismo candado que la publicación: ni huecos ni duplicados
+        synchronized (buffer) {
+            if (ultimoEventoId != null) {
+                long ultimo = secuenciaPropia(ultimoEventoId);
+                List<CambioRegistrado> perdidos = buffer.stream()
+                        .filter(cambio -> cambio.secuencia() > ultimo)
+                        .toList();
+                boolean fueraDelBuffer = ultimo < 0
+                        || ultimo > secuencia
+                        || (!buffer.isEmpty() && buffer.peekFirst().secuencia() > ultimo + 1)
+                        || perdidos.size() > tamanioCola;
+                if (fueraDelBuffer) {
+                    // Con el id actual: si el cliente vuelve a reconectar retoma desde aquí
+                    suscriptor.cola().offer(CambioRegistrado.reinicio(secuencia));
+                } else {
+                    suscriptor.cola().addAll(perdidos);
+                }
+            }
+            suscriptores.add(suscriptor);
+        }
+        log.debug("Nuevo suscriptor de cambios de vehículos (Last-Event-ID: {}); total: {}",
+                ultimoEventoId, suscriptores.size());
+        programarEnvio(suscriptor);
+        return emitter;
+    }
+
+    void difundir(VehiculoCambioDto dto) {
+        synchronized (buffer) {
+            CambioRegistrado cambio = CambioRegistrado.cambio(++secuencia, dto);
+            if (buffer.size() == tamanioBuffer) {
+                buffer.pollFirst();
+            }
+            buffer.addLast(cambio);
+            suscriptores.forEach(suscriptor -> encolar(suscriptor, cambio));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${vehiculos.cambios.heartbeat:15s}")
+    public void enviarLatido() {
+        // Mantiene viva la conexión a través de proxies y detecta clientes caídos
+        suscriptores.forEach(suscriptor -> {
+            if (suscriptor.cola().isEmpty()) {
+                encolar(suscriptor, CambioRegistrado.LATIDO);
+            }
+        });
+    }
+
+    @PreDestroy
+    void cerrar() {
+        suscriptores.forEach(suscriptor -> suscriptor.emitter().complete());
+        envios.shutdownNow();
+    }
+
+    SseEmitter crearEmitter() {
+        return new SseEmitter(timeout.toMillis());
+    }
+
+    // Secuencia de un id "arranque-secuencia" emitido por esta instancia; -1 si viene de otra o no se entiende
+    private long secuenciaPropia(String eventoId) {
+        String prefijo = arranque + "-";
+        if (!eventoId.startsWith(prefijo)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventoId.substring(prefijo.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void encolar(Suscriptor suscriptor, CambioRegistrado cambio) {
+        if (!suscriptor.cola().offer(cambio)) {
+            log.warn("Cliente de cambios de vehículos demasiado lento ({} pendientes); se cierra la conexión",
+                    suscriptor.cola().size());
+            suscriptores.remove(suscriptor);
+            suscriptor.emitter().complete();
+            return;
+        }
+        programarEnvio(suscriptor);
+    }
+
+    private void programarEnvio(Suscriptor suscriptor) {
+        if (!suscriptor.cola().isEmpty() && suscriptor.enviando().compareAndSet(false, true)) {
+            envios.execute(() -> vaciar(suscriptor));
+        }
+    }
+
+    private void vaciar(Suscriptor suscriptor) {
+        try {
+            CambioRegistrado cambio;
+            while ((cambio = suscriptor.cola().poll()) != null) {
+                suscriptor.emitter().send(cambio.comoEvento(arranque));
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Suscriptor de cambios desconectado: {}", e.getMessage());
+            suscriptores.remove(suscriptor);
+            suscriptor.cola().clear();
+            return;
+        } finally {
+            suscriptor.enviando().set(false);
+        }
+        // Un cambio pudo encolarse justo después del último poll
+        programarEnvio(suscriptor);
+    }
+
+    private record Suscriptor(SseEmitter emitter, BlockingQueue<CambioRegistrado> cola, AtomicBoolean enviando) {
+        Suscriptor(SseEmitter emitter, BlockingQueue<CambioRegistrado> cola) {
+            this(emitter, cola, new AtomicBoolean());
+        }
+
+        // Identidad por instancia: dos suscriptores nunca son "iguales"
+        @Override
+        public boolean equals(Object otro) {
+            return this == otro;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+
+    private enum TipoEnvio { CAMBIO, REINICIO, LATIDO }
+
+    private record CambioRegistrado(TipoEnvio tipo, long secuencia, VehiculoCambioDto cambio) {
+        static final CambioRegistrado LATIDO = new CambioRegistrado(TipoEnvio.LATIDO, -1, null);
+
+        static CambioRegistrado cambio(long secuencia, VehiculoCambioDto cambio) {
+            return new CambioRegistrado(TipoEnvio.CAMBIO, secuencia, cambio);
+        }
+
+        static CambioRegistrado reinicio(long secuencia) {
+            return new CambioRegistrado(TipoEnvio.REINICIO, secuencia, null);
+        }
+
+        SseEmitter.SseEventBuilder comoEvento(String arranque) {
+            return switch (tipo) {
+                case LATIDO -> SseEmitter.event().comment("latido");
+                case REINICIO -> SseEmitter.event()
+                        .id(arranque + "-" + secuencia)
+                        .name(EVENTO_REINICIO)
+                        .data("");
+                case CAMBIO -> SseEmitter.event()
+                        .id(arranque + "-" + secuencia)
+                        .name(EVENTO_CAMBIO)
+                        .data(cambio);
+            };
+        }
+    }
+}
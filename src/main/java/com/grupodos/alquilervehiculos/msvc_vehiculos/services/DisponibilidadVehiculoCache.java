@@ -0,0 +1,50 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.EstadoVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.events.TipoCambioVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.events.VehiculoCambiadoEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Mapa id → estado de los vehículos consultados recientemente en /{id}/disponible.
+ * Los cambios hechos por esta instancia se aplican tras el commit; el TTL acota cuánto
+ * tarda en verse un cambio hecho por otra réplica.
+ */
+@Component
+@Slf4j
+public class DisponibilidadVehiculoCache {
+
+    private final Cache<UUID, EstadoVehiculo> estados;
+
+    public DisponibilidadVehiculoCache(
+            @Value("${vehiculos.disponibilidad.cache.tamanio-maximo:50000}") long tamanioMaximo,
+            @Value("${vehiculos.disponibilidad.cache.ttl:5s}") Duration ttl) {
+        this.estados = Caffeine.newBuilder()
+                .maximumSize(tamanioMaximo)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public EstadoVehiculo obtener(UUID id, Function<UUID, EstadoVehiculo> cargador) {
+        return estados.get(id, cargador);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onVehiculoCambiado(VehiculoCambiadoEvent evento) {
+        if (evento.tipo() == TipoCambioVehiculo.BORRADO) {
+            estados.invalidate(evento.id());
+        } else {
+            estados.put(evento.id(), evento.estado());
+        }
+    }
+}
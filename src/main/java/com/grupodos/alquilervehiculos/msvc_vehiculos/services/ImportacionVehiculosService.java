@@ -0,0 +1,193 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.services;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.ImportacionErrorDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.ImportacionResultadoDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.VehiculoRequestDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Modelo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.TipoVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Vehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.EstadoVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.events.DimensionesVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.events.TipoCambioVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.events.VehiculoCambiadoEvent;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.VehiculoRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Alta masiva de vehículos: valida todas las filas en memoria, consulta placas existentes y
+ * catálogos una sola vez, e inserta en lotes con JDBC batching, cada lote en su propia transacción.
+ */
+@Service
+@Slf4j
+public class ImportacionVehiculosService {
+
+    private final VehiculoRepository vehiculoRepository;
+    private final ModeloService modeloService;
+    private final TipoVehiculoService tipoVehiculoService;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanioLote;
+    private final int maximoFilas;
+
+    public ImportacionVehiculosService(VehiculoRepository vehiculoRepository,
+                                       ModeloService modeloService,
+                                       TipoVehiculoService tipoVehiculoService,
+                                       Validator validator,
+                                       ApplicationEventPublisher eventPublisher,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${vehiculos.importacion.tamanio-lote:500}") int tamanioLote,
+                                       @Value("${vehiculos.importacion.maximo-filas:10000}") int maximoFilas) {
+        this.vehiculoRepository = vehiculoRepository;
+        this.modeloService = modeloService;
+        this.tipoVehiculoService = tipoVehiculoService;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanioLote = tamanioLote;
+        this.maximoFilas = maximoFilas;
+    }
+
+    public ImportacionResultadoDto importarCsv(MultipartFile archivo) {
+        try {
+            // Deja de leer pasado el máximo: un archivo enorme no se carga entero para rechazarlo después
+            return importar(VehiculoCsvParser.leer(archivo.getInputStream(), maximoFilas + 1));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("No se pudo leer el archivo CSV: " + e.getMessage());
+        }
+    }
+
+    public ImportacionResultadoDto importar(List<VehiculoRequestDto> filas) {
+        log.info("Importando {} vehículos", filas.size());
+        if (filas.size() > maximoFilas) {
+            throw new IllegalArgumentException("La importación excede el máximo de " + maximoFilas + " filas");
+        }
+
+        List<ImportacionErrorDto> errores = new ArrayList<>();
+        Map<Long, Modelo> modelos = modeloService.listarTodos().stream()
+                .collect(Collectors.toMap(Modelo::getId, Function.identity()));
+        Map<Long, TipoVehiculo> tipos = tipoVehiculoService.listarTodos().stream()
+                .collect(Collectors.toMap(tipo -> tipo.getId().longValue(), Function.identity()));
+
+        Set<String> placas = filas.stream()
+                .filter(Objects::nonNull)
+                .map(dto -> normalizarPlaca(dto.placa()))
+                .filter(StringUtils::isNotEmpty)
+                .collect(Collectors.toSet());
+        Set<String> existentes = placas.isEmpty() ? Set.of() : vehiculoRepository.findPlacasExistentes(placas);
+
+        Set<String> vistas = new HashSet<>();
+        Map<Vehiculo, Integer> numeroFila = new IdentityHashMap<>();
+        List<Vehiculo> nuevos = new ArrayList<>();
+        for (int i = 0; i < filas.size(); i++) {
+            int fila = i + 1;
+            VehiculoRequestDto dto = filas.get(i);
+            if (dto == null) {
+                errores.add(new ImportacionErrorDto(fila, null, "Fila vacía"));
+                continue;
+            }
+            String placa = normalizarPlaca(dto.placa());
+
+            String error = validar(dto, placa, existentes, vistas, modelos, tipos);
+            if (error != null) {
+                errores.add(new ImportacionErrorDto(fila, placa, error));
+                continue;
+            }
+            vistas.add(placa);
+            Vehiculo vehiculo = nuevoVehiculo(dto, placa, modelos, tipos);
+            numeroFila.put(vehiculo, fila);
+            nuevos.add(vehiculo);
+        }
+
+        int creados = 0;
+        for (int desde = 0; desde < nuevos.size(); desde += tamanioLote) {
+            List<Vehiculo> lote = nuevos.subList(desde, Math.min(desde + tamanioLote, nuevos.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> guardarLote(lote));
+                creados += lote.size();
+            } catch (DataAccessException e) {
+                log.warn("Falló un lote de importación de {} vehículos: {}", lote.size(), e.getMessage());
+                lote.forEach(v -> errores.add(new ImportacionErrorDto(numeroFila.get(v), v.getPlaca(),
+                        "No se pudo guardar el lote: " + e.getMostSpecificCause().getMessage())));
+            }
+        }
+
+        log.info("Importación finalizada: {} creados, {} con errores", creados, errores.size());
+        return new ImportacionResultadoDto(filas.size(), creados, errores);
+    }
+
+    private void guardarLote(List<Vehiculo> lote) {
+        // Vehiculo usa UUID generado en Java, por lo que Hibernate agrupa los INSERT en batches JDBC
+        vehiculoRepository.saveAll(lote);
+        lote.forEach(v -> {
+            DimensionesVehiculo dimensiones = DimensionesVehiculo.de(v);
+            eventPublisher.publishEvent(new VehiculoCambiadoEvent(
+                    v.getId(), TipoCambioVehiculo.CREADO, null, v.getEstado(), v.isActivo(), dimensiones, dimensiones));
+        });
+    }
+
+    private String validar(VehiculoRequestDto dto, String placa, Set<String> existentes, Set<String> vistas,
+                           Map<Long, Modelo> modelos, Map<Long, TipoVehiculo> tipos) {
+        Set<ConstraintViolation<VehiculoRequestDto>> violaciones = validator.validate(dto);
+        if (!violaciones.isEmpty()) {
+            return violaciones.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (existentes.contains(placa)) {
+            return "Ya existe un vehículo con la placa: " + placa;
+        }
+        if (vistas.contains(placa)) {
+            return "Placa repetida en la importación: " + placa;
+        }
+        if (!modelos.containsKey(dto.modeloId())) {
+            return "Modelo no encontrado con ID: " + dto.modeloId();
+        }
+        if (!tipos.containsKey(dto.tipoVehiculoId())) {
+            return "Tipo de vehículo no encontrado con ID: " + dto.tipoVehiculoId();
+        }
+        return null;
+    }
+
+    private Vehiculo nuevoVehiculo(VehiculoRequestDto dto, String placa,
+                                   Map<Long, Modelo> modelos, Map<Long, TipoVehiculo> tipos) {
+        Vehiculo vehiculo = new Vehiculo();
+        vehiculo.setPlaca(placa);
+        vehiculo.setModelo(modelos.get(dto.modeloId()));
+        vehiculo.setTipoVehiculo(tipos.get(dto.tipoVehiculoId()));
+        vehiculo.setAnioFabricacion(dto.anioFabricacion());
+        vehiculo.setCombustible(dto.combustible());
+        vehiculo.setDescripcion(StringUtils.trim(dto.descripcion()));
+        vehiculo.setEstado(EstadoVehiculo.DISPONIBLE);
+        vehiculo.setActivo(true);
+        vehiculo.setCreadoEn(OffsetDateTime.now());
+        return vehiculo;
+    }
+
+    private static String normalizarPlaca(String placa) {
+        return StringUtils.upperCase(StringUtils.trim(placa));
+    }
+}
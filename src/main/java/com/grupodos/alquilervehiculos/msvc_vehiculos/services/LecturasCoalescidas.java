@@ -0,0 +1,126 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.EstadoVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.events.VehiculoCambiadoEvent;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.exceptions.BaseDatosSaturadaException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight para las lecturas de VehiculoService con más ráfagas (/disponibles, /estado/{estado},
+ * /contratos/{id}): las peticiones idénticas concurrentes esperan la misma consulta y reciben el mismo
+ * JSON ya serializado. Terminada la consulta, el resultado se reutiliza durante la ventana configurada;
+ * un error no se reutiliza y cualquier cambio de vehículo confirmado descarta todo lo guardado. Quien
+ * espera una consulta ajena lo hace como mucho {@code vehiculos.coalescencia.espera-maxima}; después
+ * recibe 503 como cuando el bulkhead está saturado.
+ */
+@Component
+@Slf4j
+public class LecturasCoalescidas {
+
+    private final VehiculoService vehiculoService;
+    private final ObjectMapper objectMapper;
+    private final AsyncCache<Object, byte[]> lecturas;
+    private final Duration esperaMaxima;
+
+    private record Contrato(UUID id) {
+    }
+
+    private record PorEstado(EstadoVehiculo estado) {
+    }
+
+    private enum Disponibles { CLAVE }
+
+    public LecturasCoalescidas(
+            VehiculoService vehiculoService,
+            ObjectMapper objectMapper,
+            @Value("${vehiculos.coalescencia.tamanio-maximo:10000}") long tamanioMaximo,
+            @Value("${vehiculos.coalescencia.ventana:50ms}") Duration ventana,
+            @Value("${vehiculos.coalescencia.espera-maxima:5s}") Duration esperaMaxima) {
+        this.vehiculoService = vehiculoService;
+        this.objectMapper = objectMapper;
+        this.esperaMaxima = esperaMaxima;
+        // Caffeine no vence una entrada en curso: la ventana empieza a contar cuando termina la consulta
+        this.lecturas = Caffeine.newBuilder()
+                .maximumSize(tamanioMaximo)
+                .expireAfterWrite(ventana)
+                .buildAsync();
+    }
+
+    public byte[] listarDisponibles() {
+        return compartir(Disponibles.CLAVE, vehiculoService::listarDisponibles);
+    }
+
+    public byte[] listarPorEstado(EstadoVehiculo estado) {
+        return compartir(new PorEstado(estado), () -> vehiculoService.listarPorEstado(estado));
+    }
+
+    public byte[] obtenerParaContrato(UUID id) {
+        return compartir(new Contrato(id), () -> vehiculoService.obtenerParaContrato(id));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onVehiculoCambiado(VehiculoCambiadoEvent evento) {
+        // Quien ya espera una consulta en curso recibe su resultado; las peticiones nuevas consultan de nuevo
+        lecturas.synchronous().invalidateAll();
+    }
+
+    byte[] compartir(Object clave, Supplier<?> lectura) {
+        CompletableFuture<byte[]> propia = new CompletableFuture<>();
+        CompletableFuture<byte[]> enCurso = lecturas.asMap().putIfAbsent(clave, propia);
+        if (enCurso != null) {
+            log.debug("Lectura compartida: {}", clave);
+            return esperar(enCurso);
+        }
+
+        // La consulta corre en el hilo de quien llegó primero, con su transacción y su permiso del bulkhead
+        try {
+            byte[] cuerpo = objectMapper.writeValueAsBytes(lectura.get());
+            propia.complete(cuerpo);
+            return cuerpo;
+        } catch (JsonProcessingException e) {
+            UncheckedIOException error = new UncheckedIOException(e);
+            propia.completeExceptionally(error);
+            throw error;
+        } catch (Throwable e) {
+            // También errores de la JVM: el futuro sin completar dejaría colgados a todos los que esperan
+            propia.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private byte[] esperar(CompletableFuture<byte[]> enCurso) {
+        try {
+            // El límite se aplica a una copia: vencer la espera propia no completa el futuro compartido
+            return enCurso.copy().orTimeout(esperaMaxima.toMillis(), TimeUnit.MILLISECONDS).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new BaseDatosSaturadaException(esperaMaxima);
+            }
+            // Se relanza la excepción original para que GlobalExceptionHandler responda igual que a quien consultó
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+}
@@ -1,17 +1,32 @@
 package com.grupodos.alquilervehiculos.msvc_vehiculos.services;
 
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.CostoAgrupadoDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.CostoMensualDto;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.MantenimientoRequestDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.MantenimientoVencimientoDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.PaginaDto;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Mantenimiento;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Vehiculo;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.EstadoVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.events.MantenimientoCambiadoEvent;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.events.TipoCambioMantenimiento;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.exceptions.MantenimientoNotFoundException;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.exceptions.VehiculoNotFoundException;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.MantenimientoRepository;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.VehiculoRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.config.LecturaToleranteADesfase;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,14 +42,23 @@ import java.util.UUID;
 @Transactional
 public class MantenimientoService {
 
+    static final String UQ_MANTENIMIENTO_ABIERTO = "uq_mantenimientos_vehiculo_abierto";
+
     private final MantenimientoRepository mantenimientoRepository;
     private final VehiculoRepository vehiculoRepository;
+    private final VehiculoService vehiculoService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${mantenimientos.paginacion.tamanio-maximo:500}")
+    private int tamanioPaginaMaximo;
 
+    @LecturaToleranteADesfase
     public List<Mantenimiento> listarTodos() {
         log.debug("Listando todos los mantenimientos");
         return mantenimientoRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public Mantenimiento obtenerPorId(Long id) {
         log.debug("Obteniendo mantenimiento con ID: {}", id);
         return mantenimientoRepository.findById(id)
@@ -44,21 +68,25 @@ public class MantenimientoService {
                 });
     }
 
+    @LecturaToleranteADesfase
     public List<Mantenimiento> listarPorVehiculo(UUID vehiculoId) {
         log.debug("Listando mantenimientos para vehículo ID: {}", vehiculoId);
         return mantenimientoRepository.findByVehiculoId(vehiculoId);
     }
 
+    @LecturaToleranteADesfase
     public List<Mantenimiento> listarMantenimientosActivos() {
         log.debug("Listando todos los mantenimientos activos");
         return mantenimientoRepository.findByFinalizadoFalse();
     }
 
+    @Transactional(readOnly = true)
     public List<Mantenimiento> listarMantenimientosActivosPorVehiculo(UUID vehiculoId) {
         log.debug("Listando mantenimientos activos para vehículo ID: {}", vehiculoId);
         return mantenimientoRepository.findByVehiculoIdAndFinalizadoFalse(vehiculoId);
     }
 
+    @LecturaToleranteADesfase
     public List<Mantenimiento> listarHistorialMantenimientos(UUID vehiculoId) {
         log.debug("Listando historial de mantenimientos para vehículo ID: {}", vehiculoId);
         return mantenimientoRepository.findByVehiculoIdAndFinalizadoTrueOrderByFechaFinDesc(vehiculoId);
@@ -81,26 +109,29 @@ public class MantenimientoService {
             );
         }
 
-        // Verificar que no tenga mantenimientos activos
-        List<Mantenimiento> mantenimientosActivos = listarMantenimientosActivosPorVehiculo(dto.vehiculoId());
-        if (!mantenimientosActivos.isEmpty()) {
-            log.warn("El vehículo {} ya tiene mantenimientos activos", dto.vehiculoId());
-            throw new IllegalStateException("El vehículo ya tiene mantenimientos en curso");
-        }
-
-        // Cambiar estado del vehículo a EN_MANTENIMIENTO
-        vehiculo.setEstado(EstadoVehiculo.EN_MANTENIMIENTO);
-        vehiculoRepository.save(vehiculo);
+        // Cambiar estado del vehículo a EN_MANTENIMIENTO solo si nadie se adelantó
+        vehiculoService.transicionarEstado(vehiculo, EstadoVehiculo.EN_MANTENIMIENTO);
 
         Mantenimiento mantenimiento = new Mantenimiento();
-        mantenimiento.setVehiculo(vehiculo);
+        mantenimiento.setVehiculo(vehiculoService.obtenerPorId(vehiculo.getId()));
         mantenimiento.setDescripcion(StringUtils.trim(dto.descripcion()));
         mantenimiento.setFechaInicio(ObjectUtils.defaultIfNull(dto.fechaInicio(), LocalDate.now()));
         mantenimiento.setFechaFin(dto.fechaFin());
         mantenimiento.setCosto(ObjectUtils.defaultIfNull(dto.costo(), BigDecimal.ZERO));
         mantenimiento.setFinalizado(false);
 
-        Mantenimiento guardado = mantenimientoRepository.save(mantenimiento);
+        // Un solo mantenimiento abierto por vehículo: lo garantiza uq_mantenimientos_vehiculo_abierto (V5)
+        Mantenimiento guardado;
+        try {
+            guardado = mantenimientoRepository.saveAndFlush(mantenimiento);
+        } catch (DataIntegrityViolationException e) {
+            if (!violaMantenimientoAbiertoUnico(e)) {
+                throw e;
+            }
+            log.warn("El vehículo {} ya tiene mantenimientos activos", dto.vehiculoId());
+            throw new IllegalStateException("El vehículo ya tiene mantenimientos en curso", e);
+        }
+        publicarCambio(guardado, TipoCambioMantenimiento.CREADO);
         log.info("Mantenimiento creado exitosamente con ID: {} para vehículo: {}",
                 guardado.getId(), dto.vehiculoId());
         return guardado;
@@ -114,16 +145,16 @@ public class MantenimientoService {
             throw new IllegalStateException("El mantenimiento ya está finalizado");
         }
 
+        // Cambiar estado del vehículo a DISPONIBLE
+        liberarVehiculo(mantenimiento.getVehiculo());
+
         // Actualizar fechas y estado del mantenimiento
+        mantenimiento.setVehiculo(vehiculoService.obtenerPorId(mantenimiento.getVehiculo().getId()));
         mantenimiento.setFechaFin(LocalDate.now());
         mantenimiento.setFinalizado(true);
 
-        // Cambiar estado del vehículo a DISPONIBLE
-        Vehiculo vehiculo = mantenimiento.getVehiculo();
-        vehiculo.setEstado(EstadoVehiculo.DISPONIBLE);
-        vehiculoRepository.save(vehiculo);
-
         Mantenimiento finalizado = mantenimientoRepository.save(mantenimiento);
+        publicarCambio(finalizado, TipoCambioMantenimiento.FINALIZADO);
         log.info("Mantenimiento finalizado exitosamente: {}", id);
         return finalizado;
     }
@@ -141,19 +172,16 @@ public class MantenimientoService {
             Vehiculo nuevoVehiculo = vehiculoRepository.findById(dto.vehiculoId())
                     .orElseThrow(() -> new VehiculoNotFoundException(dto.vehiculoId()));
 
-            // Revertir estado del vehículo anterior
-            Vehiculo vehiculoAnterior = mantenimiento.getVehiculo();
-            vehiculoAnterior.setEstado(EstadoVehiculo.DISPONIBLE);
-            vehiculoRepository.save(vehiculoAnterior);
-
             // Validar y cambiar estado del nuevo vehículo
             if (nuevoVehiculo.getEstado() != EstadoVehiculo.DISPONIBLE) {
                 throw new IllegalStateException("El nuevo vehículo no está disponible para mantenimiento");
             }
-            nuevoVehiculo.setEstado(EstadoVehiculo.EN_MANTENIMIENTO);
-            vehiculoRepository.save(nuevoVehiculo);
+            vehiculoService.transicionarEstado(nuevoVehiculo, EstadoVehiculo.EN_MANTENIMIENTO);
 
-            mantenimiento.setVehiculo(nuevoVehiculo);
+            // Revertir estado del vehículo anterior
+            liberarVehiculo(mantenimiento.getVehiculo());
+
+            mantenimiento.setVehiculo(vehiculoService.obtenerPorId(dto.vehiculoId()));
         }
 
         mantenimiento.setDescripcion(StringUtils.trim(dto.descripcion()));
@@ -172,29 +200,98 @@ public class MantenimientoService {
 
         // Si el mantenimiento está activo, revertir el estado del vehículo
         if (!mantenimiento.isFinalizado()) {
-            Vehiculo vehiculo = mantenimiento.getVehiculo();
-            vehiculo.setEstado(EstadoVehiculo.DISPONIBLE);
-            vehiculoRepository.save(vehiculo);
-            log.debug("Estado del vehículo {} revertido a DISPONIBLE", vehiculo.getId());
+            liberarVehiculo(mantenimiento.getVehiculo());
         }
 
+        publicarCambio(mantenimiento, TipoCambioMantenimiento.ELIMINADO);
         mantenimientoRepository.delete(mantenimiento);
         log.debug("Mantenimiento eliminado: {}", id);
     }
 
+    @LecturaToleranteADesfase
     public BigDecimal obtenerCostoTotalMantenimientos(UUID vehiculoId) {
         log.debug("Calculando costo total de mantenimientos para vehículo: {}", vehiculoId);
-        List<Mantenimiento> mantenimientos = mantenimientoRepository.findByVehiculoId(vehiculoId);
+        return mantenimientoRepository.sumCostoByVehiculoId(vehiculoId);
+    }
+
+    @LecturaToleranteADesfase
+    public List<CostoAgrupadoDto> obtenerCostosPorVehiculo(LocalDate desde, LocalDate hasta) {
+        log.debug("Calculando costos de mantenimiento por vehículo entre {} y {}", desde, hasta);
+        return mantenimientoRepository.sumCostoPorVehiculo(desde, hasta);
+    }
 
-        return mantenimientos.stream()
-                .map(Mantenimiento::getCosto)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    @LecturaToleranteADesfase
+    public List<CostoAgrupadoDto> obtenerCostosPorMarca(LocalDate desde, LocalDate hasta) {
+        log.debug("Calculando costos de mantenimiento por marca entre {} y {}", desde, hasta);
+        return mantenimientoRepository.sumCostoPorMarca(desde, hasta);
     }
 
+    @LecturaToleranteADesfase
+    public List<CostoAgrupadoDto> obtenerCostosPorTipo(LocalDate desde, LocalDate hasta) {
+        log.debug("Calculando costos de mantenimiento por tipo entre {} y {}", desde, hasta);
+        return mantenimientoRepository.sumCostoPorTipo(desde, hasta);
+    }
+
+    @LecturaToleranteADesfase
+    public List<CostoMensualDto> obtenerCostosPorMes(LocalDate desde, LocalDate hasta) {
+        log.debug("Calculando costos de mantenimiento por mes entre {} y {}", desde, hasta);
+        return mantenimientoRepository.sumCostoPorMes(desde, hasta);
+    }
+
+    @LecturaToleranteADesfase
     public List<Mantenimiento> listarMantenimientosProximosAVencer(LocalDate fechaLimite) {
         log.debug("Listando mantenimientos próximos a vencer antes de: {}", fechaLimite);
-        return mantenimientoRepository.findByFinalizadoFalse().stream()
-                .filter(m -> m.getFechaFin() != null && m.getFechaFin().isBefore(fechaLimite))
-                .toList();
+        return mantenimientoRepository
+                .findByFinalizadoFalseAndFechaFinBeforeOrderByFechaFinAscIdAsc(fechaLimite, Pageable.unpaged())
+                .getContent();
+    }
+
+    @LecturaToleranteADesfase
+    public PaginaDto<Mantenimiento> listarMantenimientosProximosAVencer(LocalDate fechaLimite, int pagina, int tamanio) {
+        log.debug("Listando página {} de mantenimientos próximos a vencer antes de: {}", pagina, fechaLimite);
+        Slice<Mantenimiento> slice = mantenimientoRepository
+                .findByFinalizadoFalseAndFechaFinBeforeOrderByFechaFinAscIdAsc(fechaLimite, paginar(pagina, tamanio));
+        return new PaginaDto<>(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext());
+    }
+
+    @LecturaToleranteADesfase
+    public PaginaDto<MantenimientoVencimientoDto> listarVencimientos(LocalDate fechaLimite, int pagina, int tamanio) {
+        log.debug("Listando vencimientos de mantenimientos antes de: {}", fechaLimite);
+        Slice<MantenimientoVencimientoDto> slice =
+                mantenimientoRepository.findVencimientos(fechaLimite, paginar(pagina, tamanio));
+        return new PaginaDto<>(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext());
+    }
+
+    private Pageable paginar(int pagina, int tamanio) {
+        return PageRequest.of(Math.max(pagina, 0), Math.clamp(tamanio, 1, tamanioPaginaMaximo));
+    }
+
+    private void liberarVehiculo(Vehiculo vehiculo) {
+        if (vehiculo.getEstado() != EstadoVehiculo.EN_MANTENIMIENTO) {
+            log.warn("El vehículo {} no estaba en mantenimiento (estado: {}); se conserva su estado",
+                    vehiculo.getId(), vehiculo.getEstado());
+            return;
+        }
+        vehiculoService.transicionarEstado(vehiculo, EstadoVehiculo.DISPONIBLE);
+        log.debug("Estado del vehículo {} revertido a DISPONIBLE", vehiculo.getId());
+    }
+
+    private void publicarCambio(Mantenimiento mantenimiento, TipoCambioMantenimiento tipo) {
+        eventPublisher.publishEvent(new MantenimientoCambiadoEvent(
+                mantenimiento.getId(), mantenimiento.getVehiculo().getId(), tipo));
+    }
+
+    // Solo el índice único se traduce a conflicto de estado; FK, NOT NULL u otras restricciones siguen como error de datos
+    private static boolean violaMantenimientoAbiertoUnico(DataIntegrityViolationException e) {
+        ConstraintViolationException violacion = ExceptionUtils.throwableOfType(e, ConstraintViolationException.class);
+        if (violacion == null || violacion.getConstraintName() == null) {
+            return false;
+        }
+        // Según el motor el nombre llega con el esquema ("public.uq_...")
+        String restriccion = violacion.getConstraintName();
+        if (restriccion.contains(".")) {
+            restriccion = StringUtils.substringAfterLast(restriccion, ".");
+        }
+        return StringUtils.equalsIgnoreCase(restriccion, UQ_MANTENIMIENTO_ABIERTO);
     }
 }
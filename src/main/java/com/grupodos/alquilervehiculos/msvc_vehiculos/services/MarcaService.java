@@ -1,20 +1,22 @@
 package com.grupodos.alquilervehiculos.msvc_vehiculos.services;
 
+import com.grupodos.alquilervehiculos.msvc_vehiculos.config.CacheConfig;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.MarcaConModelosRequestDto;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Marca;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Modelo;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.exceptions.MarcaNotFoundException;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.exceptions.RecursoDuplicadoException;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.MarcaRepository;
-import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.ModeloRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.services.VersionesAgregados.Agregado;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.Objects;
 
 @Service
 @Slf4j
@@ -23,13 +25,18 @@ import java.util.Objects;
 public class MarcaService {
 
     private final MarcaRepository marcaRepository;
-    private final ModeloRepository modeloRepository;
+    private final ModeloService modeloService;
+    private final VersionesAgregados versionesAgregados;
 
+    @Cacheable(cacheNames = CacheConfig.MARCAS, keyGenerator = CacheConfig.CLAVES_MARCAS, sync = true)
+    @Transactional(readOnly = true)
     public List<Marca> listarTodas() {
         log.debug("Listando todas las marcas");
         return marcaRepository.findAll();
     }
 
+    @Cacheable(cacheNames = CacheConfig.MARCA, keyGenerator = CacheConfig.CLAVES_MARCAS, sync = true)
+    @Transactional(readOnly = true)
     public Marca obtenerPorId(Long id) {
         log.debug("Obteniendo marca con ID: {}", id);
         return marcaRepository.findById(id)
@@ -39,6 +46,8 @@ public class MarcaService {
                 });
     }
 
+    @CacheEvict(cacheNames = {CacheConfig.MARCAS, CacheConfig.MARCA, CacheConfig.MODELOS,
+            CacheConfig.MODELO, CacheConfig.MODELOS_POR_MARCA}, allEntries = true)
     public Marca crearMarcaConModelos(MarcaConModelosRequestDto dto) {
         log.info("Creando marca '{}' con {} modelos", dto.nombreMarca(), dto.modelos().size());
 
@@ -58,22 +67,8 @@ public class MarcaService {
         Marca marcaGuardada = marcaRepository.save(marca);
         log.debug("Marca creada con ID: {}", marcaGuardada.getId());
 
-        List<Modelo> modelosCreados = dto.modelos().stream()
-                .map(nombreModelo -> {
-                    String nombreModeloNormalizado = StringUtils.capitalize(StringUtils.trim(nombreModelo));
-
-                    if (modeloRepository.existsByNombreAndMarcaId(nombreModeloNormalizado, marcaGuardada.getId())) {
-                        log.warn("Modelo duplicado ignorado: {} para marca {}", nombreModeloNormalizado, nombreMarca);
-                        return null;
-                    }
-
-                    Modelo modelo = new Modelo();
-                    modelo.setNombre(nombreModeloNormalizado);
-                    modelo.setMarca(marcaGuardada);
-                    return modeloRepository.save(modelo);
-                })
-                .filter(Objects::nonNull)
-                .toList();
+        List<Modelo> modelosCreados = modeloService.crearModelosEnLote(marcaGuardada, dto.modelos());
+        versionesAgregados.incrementar(Agregado.MARCAS);
 
         log.info("Marca '{}' creada exitosamente con {} modelos",
                 marcaGuardada.getNombre(), modelosCreados.size());
@@ -81,6 +76,8 @@ public class MarcaService {
         return marcaGuardada;
     }
 
+    @CacheEvict(cacheNames = {CacheConfig.MARCAS, CacheConfig.MARCA, CacheConfig.MODELOS,
+            CacheConfig.MODELO, CacheConfig.MODELOS_POR_MARCA}, allEntries = true)
     public Marca crearMarca(String nombre) {
         log.info("Creando marca: {}", nombre);
 
@@ -96,9 +93,12 @@ public class MarcaService {
 
         Marca marca = new Marca();
         marca.setNombre(nombreNormalizado);
+        versionesAgregados.incrementar(Agregado.MARCAS);
         return marcaRepository.save(marca);
     }
 
+    @CacheEvict(cacheNames = {CacheConfig.MARCAS, CacheConfig.MARCA, CacheConfig.MODELOS,
+            CacheConfig.MODELO, CacheConfig.MODELOS_POR_MARCA}, allEntries = true)
     public Marca actualizarMarca(Long id, String nuevoNombre) {
         log.info("Actualizando marca ID: {} a '{}'", id, nuevoNombre);
         Marca marca = obtenerPorId(id);
@@ -115,6 +115,8 @@ public class MarcaService {
         }
 
         marca.setNombre(nombreNormalizado);
+        // Los modelos se serializan con su marca
+        versionesAgregados.incrementar(Agregado.MARCAS, Agregado.MODELOS);
         return marcaRepository.save(marca);
     }
 }
@@ -0,0 +1,49 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.services;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.EstadoVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.MantenimientoRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gauges de negocio: vehículos activos por estado (leídos de {@link ResumenFlota}) y
+ * mantenimientos abiertos (refrescados en segundo plano). El scrape de Prometheus solo lee memoria.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class MetricasFlota implements MeterBinder {
+
+    private final ResumenFlota resumenFlota;
+    private final MantenimientoRepository mantenimientoRepository;
+
+    private final AtomicLong mantenimientosAbiertos = new AtomicLong();
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (EstadoVehiculo estado : EstadoVehiculo.values()) {
+            Gauge.builder("vehiculos.flota", resumenFlota, resumen -> resumen.totalesPorEstado().get(estado))
+                    .description("Vehículos activos por estado")
+                    .tag("estado", estado.name())
+                    .register(registry);
+        }
+        Gauge.builder("mantenimientos.abiertos", mantenimientosAbiertos, AtomicLong::get)
+                .description("Mantenimientos sin finalizar")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${vehiculos.metricas.intervalo:30s}")
+    @Transactional(readOnly = true)
+    public void refrescar() {
+        mantenimientosAbiertos.set(mantenimientoRepository.countByFinalizadoFalse());
+        log.debug("Mantenimientos abiertos: {}", mantenimientosAbiertos);
+    }
+}
@@ -1,5 +1,6 @@
 package com.grupodos.alquilervehiculos.msvc_vehiculos.services;
 
+import com.grupodos.alquilervehiculos.msvc_vehiculos.config.CacheConfig;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.ModeloRequestDto;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Marca;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Modelo;
@@ -8,13 +9,19 @@ import com.grupodos.alquilervehiculos.msvc_vehiculos.exceptions.ModeloNotFoundEx
 import com.grupodos.alquilervehiculos.msvc_vehiculos.exceptions.RecursoDuplicadoException;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.MarcaRepository;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.ModeloRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.services.VersionesAgregados.Agregado;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -24,12 +31,17 @@ public class ModeloService {
 
     private final ModeloRepository modeloRepository;
     private final MarcaRepository marcaRepository;
+    private final VersionesAgregados versionesAgregados;
 
+    @Cacheable(cacheNames = CacheConfig.MODELOS, keyGenerator = CacheConfig.CLAVES_MODELOS, sync = true)
+    @Transactional(readOnly = true)
     public List<Modelo> listarTodos() {
         log.debug("Listando todos los modelos");
         return modeloRepository.findAll();
     }
 
+    @Cacheable(cacheNames = CacheConfig.MODELO, keyGenerator = CacheConfig.CLAVES_MODELOS, sync = true)
+    @Transactional(readOnly = true)
     public Modelo obtenerPorId(Long id) {
         log.debug("Obteniendo modelo con ID: {}", id);
         return modeloRepository.findById(id)
@@ -39,11 +51,15 @@ public class ModeloService {
                 });
     }
 
+    @Cacheable(cacheNames = CacheConfig.MODELOS_POR_MARCA, keyGenerator = CacheConfig.CLAVES_MODELOS, sync = true)
+    @Transactional(readOnly = true)
     public List<Modelo> listarPorMarca(Long marcaId) {
         log.debug("Listando modelos por marca ID: {}", marcaId);
         return modeloRepository.findByMarcaId(marcaId);
     }
 
+    @CacheEvict(cacheNames = {CacheConfig.MODELOS, CacheConfig.MODELO, CacheConfig.MODELOS_POR_MARCA},
+            allEntries = true)
     public Modelo crearModelo(ModeloRequestDto dto) {
         log.info("Creando modelo: {}", dto.nombre());
 
@@ -61,10 +77,63 @@ public class ModeloService {
         modelo.setMarca(marca);
 
         Modelo guardado = modeloRepository.save(modelo);
+        versionesAgregados.incrementar(Agregado.MODELOS);
         log.info("Modelo creado exitosamente con ID: {}", guardado.getId());
         return guardado;
     }
 
+    @CacheEvict(cacheNames = {CacheConfig.MODELOS, CacheConfig.MODELO, CacheConfig.MODELOS_POR_MARCA},
+            allEntries = true)
+    public List<Modelo> crearModelos(Long marcaId, List<String> nombres) {
+        log.info("Creando {} modelos para marca ID: {}", nombres.size(), marcaId);
+        Marca marca = marcaRepository.findById(marcaId)
+                .orElseThrow(() -> new MarcaNotFoundException(marcaId));
+        return crearModelosEnLote(marca, nombres);
+    }
+
+    /**
+     * Normaliza los nombres, descarta con aviso los repetidos (en la lista o ya existentes para la marca)
+     * con una sola consulta, e inserta el resto en un único batch.
+     */
+    @CacheEvict(cacheNames = {CacheConfig.MODELOS, CacheConfig.MODELO, CacheConfig.MODELOS_POR_MARCA},
+            allEntries = true)
+    public List<Modelo> crearModelosEnLote(Marca marca, List<String> nombres) {
+        Set<String> normalizados = nombres.stream()
+                .map(nombre -> StringUtils.capitalize(StringUtils.trim(nombre)))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (normalizados.size() < nombres.size()) {
+            log.warn("Se ignoraron {} modelos repetidos para marca {}",
+                    nombres.size() - normalizados.size(), marca.getNombre());
+        }
+
+        Set<String> existentes = modeloRepository.findNombresExistentes(marca.getId(), normalizados);
+
+        List<Modelo> nuevos = normalizados.stream()
+                .filter(nombre -> {
+                    if (existentes.contains(nombre)) {
+                        log.warn("Modelo duplicado ignorado: {} para marca {}", nombre, marca.getNombre());
+                        return false;
+                    }
+                    return true;
+                })
+                .map(nombre -> {
+                    Modelo modelo = new Modelo();
+                    modelo.setNombre(nombre);
+                    modelo.setMarca(marca);
+                    return modelo;
+                })
+                .toList();
+
+        if (nuevos.isEmpty()) {
+            // Nada que insertar: el catálogo no cambió y los ETags de modelos siguen valiendo
+            return nuevos;
+        }
+        versionesAgregados.incrementar(Agregado.MODELOS);
+        return modeloRepository.saveAll(nuevos);
+    }
+
+    @CacheEvict(cacheNames = {CacheConfig.MODELOS, CacheConfig.MODELO, CacheConfig.MODELOS_POR_MARCA},
+            allEntries = true)
     public Modelo actualizarModelo(Long id, ModeloRequestDto dto) {
         log.info("Actualizando modelo ID: {}", id);
         Modelo existente = obtenerPorId(id);
@@ -82,6 +151,7 @@ public class ModeloService {
         existente.setMarca(marca);
 
         Modelo actualizado = modeloRepository.save(existente);
+        versionesAgregados.incrementar(Agregado.MODELOS);
         log.info("Modelo actualizado exitosamente: {}", id);
         return actualizado;
     }
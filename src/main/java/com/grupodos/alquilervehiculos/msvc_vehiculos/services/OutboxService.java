@@ -0,0 +1,68 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.OutboxEvento;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.events.MantenimientoCambiadoEvent;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.events.TipoCambioVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.events.VehiculoCambiadoEvent;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.OutboxEventoRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.VehiculoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Escribe los eventos de dominio en la tabla outbox dentro de la misma transacción que los produjo;
+ * si la transacción se revierte, el evento desaparece con ella.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxService {
+
+    private final OutboxEventoRepository outboxEventoRepository;
+    private final VehiculoRepository vehiculoRepository;
+    private final ObjectMapper objectMapper;
+
+    @EventListener
+    public void onVehiculoCambiado(VehiculoCambiadoEvent evento) {
+        // Un vehículo recién creado no es visible para otras transacciones: no hace falta bloquearlo
+        registrar(evento.id(), "VEHICULO_" + evento.tipo(), evento, evento.tipo() != TipoCambioVehiculo.CREADO);
+    }
+
+    @EventListener
+    public void onMantenimientoCambiado(MantenimientoCambiadoEvent evento) {
+        registrar(evento.vehiculoId(), "MANTENIMIENTO_" + evento.tipo(), evento, true);
+    }
+
+    private void registrar(UUID vehiculoId, String tipo, Object payload, boolean bloquear) {
+        if (bloquear) {
+            // El id del outbox se toma con la fila bloqueada: otra transacción sobre el mismo vehículo
+            // obtiene el suyo solo después de este commit, así el orden de id es el orden por vehículo
+            vehiculoRepository.bloquearPorId(vehiculoId);
+        }
+        OutboxEvento outbox = new OutboxEvento();
+        outbox.setVehiculoId(vehiculoId);
+        outbox.setTipo(tipo);
+        outbox.setPayload(serializar(payload));
+        outbox.setCreadoEn(OffsetDateTime.now());
+        outboxEventoRepository.save(outbox);
+        log.debug("Evento {} registrado en outbox para vehículo {}", tipo, vehiculoId);
+    }
+
+    private String serializar(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento " + payload, e);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.services;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.ConteoResumenDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.ResumenFlotaDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.EstadoVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.events.DimensionesVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.events.TipoCambioVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.events.VehiculoCambiadoEvent;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.VehiculoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Conteo de vehículos activos por estado × tipo × marca × combustible, mantenido en memoria.
+ * Cada cambio confirmado mueve una unidad entre claves; una reconciliación periódica con un
+ * GROUP BY reemplaza los contadores y corrige la deriva (cambios hechos por otras réplicas,
+ * renombres de marca o tipo, eventos que se cruzaron con la propia reconciliación).
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ResumenFlota {
+
+    private final VehiculoRepository vehiculoRepository;
+
+    private volatile Map<Clave, AtomicLong> contadores = new ConcurrentHashMap<>();
+
+    public ResumenFlotaDto obtenerResumen() {
+        Map<EstadoVehiculo, Long> totales = totalesPorEstado();
+        List<ConteoResumenDto> detalle = contadores.entrySet().stream()
+                .filter(entrada -> entrada.getValue().get() > 0)
+                .map(entrada -> entrada.getKey().conteo(entrada.getValue().get()))
+                .sorted(Comparator.comparing(ConteoResumenDto::estado)
+                        .thenComparing(ConteoResumenDto::tipoVehiculo)
+                        .thenComparing(ConteoResumenDto::marca)
+                        .thenComparing(ConteoResumenDto::combustible))
+                .toList();
+        return new ResumenFlotaDto(totales, detalle);
+    }
+
+    public Map<EstadoVehiculo, Long> totalesPorEstado() {
+        Map<EstadoVehiculo, Long> totales = new EnumMap<>(EstadoVehiculo.class);
+        for (EstadoVehiculo estado : EstadoVehiculo.values()) {
+            totales.put(estado, 0L);
+        }
+        contadores.forEach((clave, valor) -> totales.merge(clave.estado(), valor.get(), Long::sum));
+        return totales;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onVehiculoCambiado(VehiculoCambiadoEvent evento) {
+        TipoCambioVehiculo tipo = evento.tipo();
+
+        boolean contabaAntes = switch (tipo) {
+            case CREADO, RESTAURADO -> false;
+            case ELIMINADO -> true;
+            default -> evento.activo();
+        };
+        boolean cuentaDespues = switch (tipo) {
+            case ELIMINADO, BORRADO -> false;
+            default -> evento.activo();
+        };
+
+        Map<Clave, AtomicLong> actuales = contadores;
+        if (contabaAntes) {
+            actuales.computeIfAbsent(new Clave(evento.estadoAnterior(), evento.dimensionesAnteriores()),
+                    clave -> new AtomicLong()).decrementAndGet();
+        }
+        if (cuentaDespues) {
+            actuales.computeIfAbsent(new Clave(evento.estado(), evento.dimensiones()),
+                    clave -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${vehiculos.resumen.reconciliacion:5m}")
+    @Transactional(readOnly = true)
+    public void reconciliar() {
+        Map<Clave, AtomicLong> recalculados = new ConcurrentHashMap<>();
+        for (ConteoResumenDto conteo : vehiculoRepository.countActivosPorResumen()) {
+            Clave clave = new Clave(conteo.estado(),
+                    new DimensionesVehiculo(conteo.marca(), conteo.tipoVehiculo(), conteo.combustible()));
+            recalculados.put(clave, new AtomicLong(conteo.cantidad()));
+        }
+
+        long deriva = diferencia(contadores, recalculados);
+        if (deriva > 0) {
+            log.info("Resumen de flota reconciliado; {} vehículos de diferencia corregidos", deriva);
+        }
+        contadores = recalculados;
+    }
+
+    private static long diferencia(Map<Clave, AtomicLong> antes, Map<Clave, AtomicLong> despues) {
+        long total = 0;
+        for (Map.Entry<Clave, AtomicLong> entrada : despues.entrySet()) {
+            AtomicLong previo = antes.get(entrada.getKey());
+            total += Math.abs(entrada.getValue().get() - (previo == null ? 0 : previo.get()));
+        }
+        for (Map.Entry<Clave, AtomicLong> entrada : antes.entrySet()) {
+            if (!despues.containsKey(entrada.getKey())) {
+                total += Math.abs(entrada.getValue().get());
+            }
+        }
+        return total;
+    }
+
+    private record Clave(EstadoVehiculo estado, DimensionesVehiculo dimensiones) {
+        ConteoResumenDto conteo(long cantidad) {
+            return new ConteoResumenDto(estado, dimensiones.tipoVehiculo(), dimensiones.marca(),
+                    dimensiones.combustible(), cantidad);
+        }
+    }
+}
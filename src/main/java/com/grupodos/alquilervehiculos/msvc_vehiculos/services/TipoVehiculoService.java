@@ -1,10 +1,12 @@
 package com.grupodos.alquilervehiculos.msvc_vehiculos.services;
 
+import com.grupodos.alquilervehiculos.msvc_vehiculos.config.CacheConfig;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.TipoVehiculo;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.exceptions.TipoVehiculoNotFoundException;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.TipoVehiculoRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,11 +21,13 @@ public class TipoVehiculoService {
 
     private final TipoVehiculoRepository tipoVehiculoRepository;
 
+    @Cacheable(cacheNames = CacheConfig.TIPOS, keyGenerator = CacheConfig.CLAVES_TIPOS, sync = true)
     public List<TipoVehiculo> listarTodos() {
         log.debug("Listando todos los tipos de vehículo");
         return tipoVehiculoRepository.findAll();
     }
 
+    @Cacheable(cacheNames = CacheConfig.TIPO, keyGenerator = CacheConfig.CLAVES_TIPOS, sync = true)
     public TipoVehiculo obtenerPorId(Long id) {
         log.debug("Obteniendo tipo de vehículo con ID: {}", id);
         return tipoVehiculoRepository.findById(id)
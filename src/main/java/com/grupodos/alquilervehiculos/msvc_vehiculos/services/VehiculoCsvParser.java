@@ -0,0 +1,92 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.services;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.VehiculoRequestDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.TipoCombustible;
+import org.apache.commons.lang3.EnumUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lee archivos CSV con cabecera {@code placa,modeloId,tipoVehiculoId,anioFabricacion,combustible,descripcion}.
+ * Los valores no convertibles quedan en null para que la validación los reporte por fila. Lee como mucho
+ * {@code limite} filas de datos; el llamador decide qué hacer si el archivo tenía más.
+ */
+final class VehiculoCsvParser {
+
+    private static final int COLUMNAS = 6;
+
+    private VehiculoCsvParser() {
+    }
+
+    static List<VehiculoRequestDto> leer(InputStream entrada, int limite) throws IOException {
+        List<VehiculoRequestDto> filas = new ArrayList<>();
+        try (BufferedReader lector = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8))) {
+            String linea = lector.readLine(); // cabecera
+            while (filas.size() < limite && (linea = lector.readLine()) != null) {
+                if (StringUtils.isBlank(linea)) {
+                    continue;
+                }
+                List<String> campos = separar(linea);
+                while (campos.size() < COLUMNAS) {
+                    campos.add(null);
+                }
+                filas.add(new VehiculoRequestDto(
+                        StringUtils.trimToNull(campos.get(0)),
+                        toLong(campos.get(1)),
+                        toLong(campos.get(2)),
+                        toInteger(campos.get(3)),
+                        EnumUtils.getEnumIgnoreCase(TipoCombustible.class, StringUtils.trim(campos.get(4))),
+                        StringUtils.trimToNull(campos.get(5))
+                ));
+            }
+        }
+        return filas;
+    }
+
+    // Separador coma con soporte de campos entre comillas dobles ("" escapa una comilla)
+    private static List<String> separar(String linea) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"' && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    actual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreComillas = false;
+                } else {
+                    actual.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        campos.add(actual.toString());
+        return campos;
+    }
+
+    private static Long toLong(String valor) {
+        String limpio = StringUtils.trim(valor);
+        return NumberUtils.isDigits(limpio) ? Long.valueOf(limpio) : null;
+    }
+
+    private static Integer toInteger(String valor) {
+        String limpio = StringUtils.trim(valor);
+        return NumberUtils.isDigits(limpio) ? Integer.valueOf(limpio) : null;
+    }
+}
@@ -1,28 +1,46 @@
 package com.grupodos.alquilervehiculos.msvc_vehiculos.services;
 
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.ContratoLoteResponseDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.PaginaCursorDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.VehiculoContratoDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.VehiculoCursor;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.VehiculoFiltroDto;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.VehiculoRequestDto;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.VehiculoResponseDto;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Modelo;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.TipoVehiculo;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Vehiculo;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.EstadoVehiculo;
-import com.grupodos.alquilervehiculos.msvc_vehiculos.exceptions.ModeloNotFoundException;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.events.DimensionesVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.events.TipoCambioVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.events.VehiculoCambiadoEvent;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.exceptions.ConflictoEstadoVehiculoException;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.exceptions.RecursoDuplicadoException;
-import com.grupodos.alquilervehiculos.msvc_vehiculos.exceptions.TipoVehiculoNotFoundException;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.exceptions.VehiculoNotFoundException;
-import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.ModeloRepository;
-import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.TipoVehiculoRepository;
 import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.VehiculoRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.VehiculoSpecifications;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.config.LecturaToleranteADesfase;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
@@ -30,38 +48,83 @@ import java.util.stream.Collectors;
 public class VehiculoService {
 
     private final VehiculoRepository vehiculoRepository;
-    private final ModeloRepository modeloRepository;
-    private final TipoVehiculoRepository tipoVehiculoRepository;
+    // Modelos y tipos se resuelven a través de la cache de catálogos
+    private final ModeloService modeloService;
+    private final TipoVehiculoService tipoVehiculoService;
+    private final DisponibilidadVehiculoCache disponibilidadCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
 
-    @Transactional(readOnly = true)
-    public List<Vehiculo> listarTodos() {
-        log.debug("Listando todos los vehículos activos");
-        return vehiculoRepository.findAll();
+    private static final Sort ORDEN_KEYSET = Sort.by("creadoEn", "id");
+
+    @Value("${vehiculos.paginacion.tamanio-defecto:50}")
+    private int tamanioPaginaDefecto;
+
+    @Value("${vehiculos.paginacion.tamanio-maximo:200}")
+    private int tamanioPaginaMaximo;
+
+    @Value("${vehiculos.contratos.lote-maximo:500}")
+    private int loteContratosMaximo;
+
+    @LecturaToleranteADesfase
+    public PaginaCursorDto<VehiculoResponseDto> listarPaginado(VehiculoFiltroDto filtro, String cursor, Integer tamanio) {
+        int limite = tamanio == null ? tamanioPaginaDefecto : Math.clamp(tamanio, 1, tamanioPaginaMaximo);
+        VehiculoCursor desde = VehiculoCursor.decodificar(cursor);
+        log.debug("Listando vehículos paginados: filtro={}, tamaño={}", filtro, limite);
+
+        // Se pide una fila extra para saber si existe una página siguiente sin hacer COUNT
+        List<Vehiculo> filas = vehiculoRepository.findBy(
+                VehiculoSpecifications.listado(filtro, desde),
+                q -> q.sortBy(ORDEN_KEYSET).limit(limite + 1).all());
+
+        if (filas.size() <= limite) {
+            return new PaginaCursorDto<>(filas.stream().map(VehiculoService::aRespuesta).toList(), null, filas.size());
+        }
+
+        List<Vehiculo> pagina = filas.subList(0, limite);
+        Vehiculo ultimo = pagina.get(limite - 1);
+        String siguiente = new VehiculoCursor(ultimo.getCreadoEn(), ultimo.getId()).codificar();
+        return new PaginaCursorDto<>(pagina.stream().map(VehiculoService::aRespuesta).toList(), siguiente, limite);
     }
 
-    @Transactional(readOnly = true)
+    // Mismos campos que las proyecciones de VehiculoRepository; los catálogos ya vienen por fetch join
+    private static VehiculoResponseDto aRespuesta(Vehiculo vehiculo) {
+        return new VehiculoResponseDto(vehiculo.getId(), vehiculo.getPlaca(),
+                vehiculo.getModelo().getMarca().getNombre(), vehiculo.getModelo().getNombre(),
+                vehiculo.getTipoVehiculo().getNombre(), vehiculo.getEstado(), vehiculo.isActivo());
+    }
+
+    @LecturaToleranteADesfase
     public List<Vehiculo> listarPorMarca(Long marcaId) {
         log.debug("Listando vehículos por marca ID: {}", marcaId);
-        return vehiculoRepository.findByModeloMarcaId(marcaId).stream()
-                .filter(Vehiculo::isActivo)
-                .toList();
+        return vehiculoRepository.findByModeloMarcaIdAndActivoTrue(marcaId);
     }
 
-    @Transactional(readOnly = true)
+    @LecturaToleranteADesfase
     public List<Vehiculo> listarPorTipo(Long tipoId) {
         log.debug("Listando vehículos por tipo ID: {}", tipoId);
-        return vehiculoRepository.findByTipoVehiculoId(tipoId).stream()
-                .filter(Vehiculo::isActivo)
-                .toList();
+        return vehiculoRepository.findByTipoVehiculoIdAndActivoTrue(tipoId.intValue());
     }
 
-    @Transactional(readOnly = true)
+    @LecturaToleranteADesfase
+    public long contarPorMarca(Long marcaId) {
+        log.debug("Contando vehículos activos por marca ID: {}", marcaId);
+        return vehiculoRepository.countByModeloMarcaIdAndActivoTrue(marcaId);
+    }
+
+    @LecturaToleranteADesfase
+    public long contarPorTipo(Long tipoId) {
+        log.debug("Contando vehículos activos por tipo ID: {}", tipoId);
+        return vehiculoRepository.countByTipoVehiculoIdAndActivoTrue(tipoId.intValue());
+    }
+
+    @LecturaToleranteADesfase
     public List<Vehiculo> listarPorEstado(EstadoVehiculo estado) {
         log.debug("Listando vehículos por estado: {}", estado);
         return vehiculoRepository.findByEstadoAndActivoTrue(estado);
     }
 
-    @Transactional(readOnly = true)
+    @LecturaToleranteADesfase
     public List<Vehiculo> listarDisponibles() {
         log.debug("Listando vehículos disponibles");
         return vehiculoRepository.findByEstadoAndActivoTrue(EstadoVehiculo.DISPONIBLE);
@@ -92,17 +155,8 @@ public class VehiculoService {
             throw new RecursoDuplicadoException("Ya existe un vehículo con la placa: " + placaNormalizada);
         }
 
-        Modelo modelo = modeloRepository.findById(dto.modeloId())
-                .orElseThrow(() -> {
-                    log.error("Modelo no encontrado con ID: {}", dto.modeloId());
-                    return new ModeloNotFoundException(dto.modeloId());
-                });
-
-        TipoVehiculo tipo = tipoVehiculoRepository.findById(dto.tipoVehiculoId())
-                .orElseThrow(() -> {
-                    log.error("Tipo de vehículo no encontrado con ID: {}", dto.tipoVehiculoId());
-                    return new TipoVehiculoNotFoundException(dto.tipoVehiculoId());
-                });
+        Modelo modelo = modeloService.obtenerPorId(dto.modeloId());
+        TipoVehiculo tipo = tipoVehiculoService.obtenerPorId(dto.tipoVehiculoId());
 
         Vehiculo vehiculo = new Vehiculo();
         vehiculo.setPlaca(placaNormalizada);
@@ -116,6 +170,7 @@ public class VehiculoService {
         vehiculo.setCreadoEn(OffsetDateTime.now());
 
         Vehiculo guardado = vehiculoRepository.save(vehiculo);
+        publicarCambio(guardado, TipoCambioVehiculo.CREADO, null);
         log.info("Vehículo creado exitosamente con ID: {}", guardado.getId());
         return guardado;
     }
@@ -124,6 +179,7 @@ public class VehiculoService {
     public Vehiculo actualizarVehiculo(UUID id, VehiculoRequestDto dto) {
         log.info("Actualizando vehículo con ID: {}", id);
         Vehiculo existente = obtenerPorId(id);
+        DimensionesVehiculo dimensionesAnteriores = DimensionesVehiculo.de(existente);
 
         String placaNormalizada = StringUtils.upperCase(StringUtils.trim(dto.placa()));
         if (!existente.getPlaca().equals(placaNormalizada) &&
@@ -131,10 +187,8 @@ public class VehiculoService {
             throw new RecursoDuplicadoException("Ya existe un vehículo con la placa: " + placaNormalizada);
         }
 
-        Modelo modelo = modeloRepository.findById(dto.modeloId())
-                .orElseThrow(() -> new ModeloNotFoundException(dto.modeloId()));
-        TipoVehiculo tipo = tipoVehiculoRepository.findById(dto.tipoVehiculoId())
-                .orElseThrow(() -> new TipoVehiculoNotFoundException(dto.tipoVehiculoId()));
+        Modelo modelo = modeloService.obtenerPorId(dto.modeloId());
+        TipoVehiculo tipo = tipoVehiculoService.obtenerPorId(dto.tipoVehiculoId());
 
         existente.setPlaca(placaNormalizada);
         existente.setModelo(modelo);
@@ -144,6 +198,9 @@ public class VehiculoService {
         existente.setDescripcion(StringUtils.trim(dto.descripcion()));
 
         Vehiculo actualizado = vehiculoRepository.save(existente);
+        eventPublisher.publishEvent(new VehiculoCambiadoEvent(
+                actualizado.getId(), TipoCambioVehiculo.ACTUALIZADO, actualizado.getEstado(), actualizado.getEstado(),
+                actualizado.isActivo(), dimensionesAnteriores, DimensionesVehiculo.de(actualizado)));
         log.info("Vehículo actualizado exitosamente: {}", id);
         return actualizado;
     }
@@ -155,6 +212,7 @@ public class VehiculoService {
                 .orElseThrow(() -> new VehiculoNotFoundException(id));
         existente.setActivo(false);
         vehiculoRepository.save(existente);
+        publicarCambio(existente, TipoCambioVehiculo.ELIMINADO, existente.getEstado());
         log.debug("Vehículo marcado como inactivo: {}", id);
     }
 
@@ -172,6 +230,7 @@ public class VehiculoService {
 
         vehiculo.setActivo(true);
         vehiculoRepository.save(vehiculo);
+        publicarCambio(vehiculo, TipoCambioVehiculo.RESTAURADO, vehiculo.getEstado());
 
         log.info("Vehículo restaurado correctamente: {}", id);
     }
@@ -182,6 +241,7 @@ public class VehiculoService {
                 .orElseThrow(() -> new VehiculoNotFoundException(id));
 
         vehiculoRepository.deleteById(id);
+        publicarCambio(vehiculo, TipoCambioVehiculo.BORRADO, vehiculo.getEstado());
     }
 
     @Transactional
@@ -189,16 +249,43 @@ public class VehiculoService {
         log.info("Actualizando estado del vehículo {} a: {}", id, estado);
         Vehiculo vehiculo = obtenerPorId(id);
 
-        // Validar transiciones de estado válidas
-        validarTransicionEstado(vehiculo.getEstado(), estado);
+        transicionarEstado(vehiculo, estado);
 
-        vehiculo.setEstado(estado);
-        Vehiculo actualizado = vehiculoRepository.save(vehiculo);
         log.info("Estado del vehículo {} actualizado a: {}", id, estado);
-        return actualizado;
+        return obtenerPorId(id);
+    }
+
+    /**
+     * Único camino para cambiar {@code estado}: valida la transición desde el estado leído y la
+     * aplica con un UPDATE condicionado a ese mismo estado. Si otra transacción se adelantó, no
+     * se modifica ninguna fila y se lanza {@link ConflictoEstadoVehiculoException}.
+     */
+    @Transactional
+    public void transicionarEstado(Vehiculo vehiculo, EstadoVehiculo nuevo) {
+        UUID id = vehiculo.getId();
+        EstadoVehiculo esperado = vehiculo.getEstado();
+        validarTransicionEstado(esperado, nuevo);
+
+        if (vehiculoRepository.actualizarEstadoSiCoincide(id, esperado, nuevo) == 0) {
+            log.warn("Conflicto al cambiar estado del vehículo {} de {} a {}", id, esperado, nuevo);
+            throw new ConflictoEstadoVehiculoException(id, esperado, nuevo);
+        }
+        // El UPDATE no pasa por la sesión: se relee solo este vehículo (estado y versión nuevos) para que
+        // un cambio posterior no choque con la versión vieja, sin desligar el resto de entidades gestionadas
+        if (entityManager.contains(vehiculo)) {
+            entityManager.refresh(vehiculo);
+        }
+        DimensionesVehiculo dimensiones = DimensionesVehiculo.de(vehiculo);
+        eventPublisher.publishEvent(new VehiculoCambiadoEvent(
+                id, TipoCambioVehiculo.ESTADO, esperado, nuevo, vehiculo.isActivo(), dimensiones, dimensiones));
     }
 
     private void validarTransicionEstado(EstadoVehiculo estadoActual, EstadoVehiculo nuevoEstado) {
+        // Un vehículo alquilado o en mantenimiento no puede volver a tomarse
+        if (estadoActual == nuevoEstado && nuevoEstado != EstadoVehiculo.DISPONIBLE) {
+            throw new IllegalStateException("El vehículo ya se encuentra en estado " + nuevoEstado);
+        }
+
         // Un vehículo alquilado no puede pasar directamente a mantenimiento
         if (estadoActual == EstadoVehiculo.ALQUILADO && nuevoEstado == EstadoVehiculo.EN_MANTENIMIENTO) {
             throw new IllegalStateException("No se puede poner en mantenimiento un vehículo alquilado");
@@ -210,26 +297,70 @@ public class VehiculoService {
         }
     }
 
-    @Transactional
+    // Sin transacción ni entidades: cache local o una consulta escalar por clave primaria
     public boolean verificarDisponibilidad(UUID id) {
-        Vehiculo vehiculo = obtenerPorId(id);
-        return vehiculo.getEstado() == EstadoVehiculo.DISPONIBLE;
+        EstadoVehiculo estado = disponibilidadCache.obtener(id, clave ->
+                vehiculoRepository.findEstadoById(clave)
+                        .orElseThrow(() -> new VehiculoNotFoundException(clave)));
+        return estado == EstadoVehiculo.DISPONIBLE;
     }
 
-    @Transactional
+    private void publicarCambio(Vehiculo vehiculo, TipoCambioVehiculo tipo, EstadoVehiculo estadoAnterior) {
+        DimensionesVehiculo dimensiones = DimensionesVehiculo.de(vehiculo);
+        eventPublisher.publishEvent(new VehiculoCambiadoEvent(
+                vehiculo.getId(), tipo, estadoAnterior, vehiculo.getEstado(), vehiculo.isActivo(),
+                dimensiones, dimensiones));
+    }
+
+    @LecturaToleranteADesfase
     public List<VehiculoResponseDto> listarTodosParaReportes() {
         log.debug("Obteniendo todos los vehículos para reportes");
-        List<Vehiculo> vehiculos = vehiculoRepository.findAll();
-        return vehiculos.stream()
-                .map(vehiculo -> new VehiculoResponseDto(
-                        vehiculo.getId(),
-                        vehiculo.getPlaca(),
-                        vehiculo.getModelo().getMarca().getNombre(),
-                        vehiculo.getModelo().getNombre(),
-                        vehiculo.getTipoVehiculo().getNombre(),
-                        vehiculo.getEstado().name(),
-                        vehiculo.isActivo()
-                ))
-                .collect(Collectors.toList());
+        return vehiculoRepository.findAllParaReportes();
+    }
+
+    @LecturaToleranteADesfase
+    public void recorrerParaReportes(Consumer<VehiculoResponseDto> consumidor) {
+        log.debug("Exportando vehículos para reportes en streaming");
+        try (Stream<VehiculoResponseDto> filas = vehiculoRepository.streamAllParaReportes()) {
+            filas.forEach(consumidor);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public VehiculoContratoDto obtenerParaContrato(UUID id) {
+        log.debug("Obteniendo vehículo para contrato con ID: {}", id);
+        return vehiculoRepository.findContratoById(id)
+                .orElseThrow(() -> {
+                    log.error("Vehículo no encontrado con ID: {}", id);
+                    return new VehiculoNotFoundException(id);
+                });
+    }
+
+    @Transactional(readOnly = true)
+    public ContratoLoteResponseDto obtenerParaContratos(List<UUID> ids) {
+        Set<UUID> solicitados = new LinkedHashSet<>(ids);
+        log.debug("Obteniendo {} vehículos para contratos", solicitados.size());
+
+        if (solicitados.size() > loteContratosMaximo) {
+            throw new IllegalArgumentException(
+                    "El lote excede el máximo permitido de " + loteContratosMaximo + " vehículos");
+        }
+
+        Map<UUID, VehiculoContratoDto> encontrados = vehiculoRepository.findContratosByIdIn(solicitados).stream()
+                .collect(Collectors.toMap(VehiculoContratoDto::id, Function.identity()));
+
+        // Se respeta el orden de la solicitud y se informan los faltantes uno por uno
+        List<VehiculoContratoDto> vehiculos = solicitados.stream()
+                .map(encontrados::get)
+                .filter(Objects::nonNull)
+                .toList();
+        List<UUID> noEncontrados = solicitados.stream()
+                .filter(id -> !encontrados.containsKey(id))
+                .toList();
+
+        if (!noEncontrados.isEmpty()) {
+            log.warn("Vehículos no encontrados para contratos: {}", noEncontrados);
+        }
+        return new ContratoLoteResponseDto(vehiculos, noEncontrados);
     }
 }
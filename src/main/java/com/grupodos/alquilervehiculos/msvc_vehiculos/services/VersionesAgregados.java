@@ -0,0 +1,249 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Marca;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Modelo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.TipoVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.events.MantenimientoCambiadoEvent;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.events.VehiculoCambiadoEvent;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.exceptions.VehiculoNotFoundException;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.VehiculoRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.VersionAgregadoRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleKeyGenerator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ETags a partir de versiones persistidas, iguales en todas las instancias: el {@code @Version} del
+ * vehículo y una fila por catálogo en {@code versiones_agregados}, que se incrementa en la misma
+ * transacción que la escritura. Las peticiones leen solo versiones en memoria:
+ * <ul>
+ * <li>Catálogos: una tarea programada relee las filas. Las caches de Spring llevan la versión en la clave
+ * ({@link #claves(Agregado)}), así lo cargado con la versión anterior nunca se sirve con la nueva. La cache
+ * de segundo nivel de Hibernate no admite esa clave: una versión ajena se publica recién en la lectura
+ * siguiente, vaciando la cache en ambas; una carga anterior al commit tendría que durar más que el
+ * intervalo para sobrevivir. Las escrituras propias se publican al confirmar.</li>
+ * <li>Vehículos: cache local de versiones que se invalida tras el commit propio y con el outbox de todas
+ * las instancias ({@link CambiosOutboxLector}); el TTL acota lo que se pierda.</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class VersionesAgregados {
+
+    private static final String REGION_CONSULTAS_CATALOGO = "catalogo-consultas";
+
+    public enum Agregado {
+        MARCAS(Marca.class),
+        MODELOS(Modelo.class),
+        TIPOS(TipoVehiculo.class);
+
+        private final Class<?> entidad;
+
+        Agregado(Class<?> entidad) {
+            this.entidad = entidad;
+        }
+    }
+
+    // Clave de las caches de catálogo: lo cargado con una versión queda ligado a ella
+    record ClaveVersionada(long version, Object clave) {}
+
+    private final VersionAgregadoRepository versionAgregadoRepository;
+    private final VehiculoRepository vehiculoRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transaccionNueva;
+
+    // Versiones que ven las peticiones
+    private final Map<Agregado, Long> publicadas = new ConcurrentHashMap<>();
+    // Versiones ajenas ya vistas una vez y todavía no publicadas. Solo bajo el monitor de esta clase
+    private final Map<Agregado, Long> porPublicar = new EnumMap<>(Agregado.class);
+
+    private final Cache<UUID, Long> versionesVehiculos;
+    private final AtomicLong invalidacionesVehiculos = new AtomicLong();
+
+    public VersionesAgregados(VersionAgregadoRepository versionAgregadoRepository,
+                              VehiculoRepository vehiculoRepository,
+                              EntityManagerFactory entityManagerFactory,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${vehiculos.etag.versiones-vehiculo.tamanio-maximo:100000}") long tamanioMaximo,
+                              @Value("${vehiculos.etag.versiones-vehiculo.ttl:5m}") Duration ttl) {
+        this.versionAgregadoRepository = versionAgregadoRepository;
+        this.vehiculoRepository = vehiculoRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.transaccionNueva = new TransactionTemplate(transactionManager);
+        this.transaccionNueva.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transaccionNueva.setReadOnly(true);
+        this.versionesVehiculos = Caffeine.newBuilder()
+                .maximumSize(tamanioMaximo)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public String etag(Agregado agregado) {
+        return "\"" + agregado.name().toLowerCase() + "-" + version(agregado) + "\"";
+    }
+
+    // El JSON del vehículo incluye modelo, marca y tipo: sus versiones forman parte del ETag.
+    // Un vehículo borrado no tiene versión: 404 en lugar de 304 para un ETag viejo
+    public String etagVehiculo(UUID id) {
+        return "\"vehiculo-" + versionVehiculo(id)
+                + "-" + version(Agregado.MODELOS)
+                + "-" + version(Agregado.TIPOS) + "\"";
+    }
+
+    public KeyGenerator claves(Agregado agregado) {
+        return (target, method, params) -> new ClaveVersionada(version(agregado), SimpleKeyGenerator.generateKey(params));
+    }
+
+    // Se une a la transacción de la escritura: si se revierte, la versión tampoco cambia
+    public void incrementar(Agregado... agregados) {
+        versionAgregadoRepository.incrementar(Arrays.stream(agregados).map(Agregado::name).toList());
+        incrementosDeLaTransaccion().addAll(Arrays.asList(agregados));
+    }
+
+    @Scheduled(fixedDelayString = "${vehiculos.etag.refresco:1s}")
+    public synchronized void refrescar() {
+        Map<Agregado, Long> leidas = leer();
+        if (publicadas.isEmpty()) {
+            publicadas.putAll(leidas);
+            return;
+        }
+        leidas.forEach((agregado, version) -> {
+            if (version.equals(publicadas.get(agregado))) {
+                porPublicar.remove(agregado);
+                return;
+            }
+            vaciarSegundoNivel(agregado);
+            if (version.equals(porPublicar.get(agregado))) {
+                publicadas.put(agregado, version);
+                porPublicar.remove(agregado);
+            } else {
+                porPublicar.put(agregado, version);
+            }
+        });
+    }
+
+    public void olvidarVehiculo(UUID id) {
+        invalidacionesVehiculos.incrementAndGet();
+        versionesVehiculos.invalidate(id);
+    }
+
+    public void olvidarVehiculos() {
+        invalidacionesVehiculos.incrementAndGet();
+        versionesVehiculos.invalidateAll();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onVehiculoCambiado(VehiculoCambiadoEvent evento) {
+        olvidarVehiculo(evento.id());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMantenimientoCambiado(MantenimientoCambiadoEvent evento) {
+        olvidarVehiculo(evento.vehiculoId());
+    }
+
+    private long version(Agregado agregado) {
+        Long version = publicadas.get(agregado);
+        if (version == null) {
+            // Petición anterior a la primera lectura programada
+            refrescar();
+            version = publicadas.get(agregado);
+        }
+        return version;
+    }
+
+    private long versionVehiculo(UUID id) {
+        Long conocida = versionesVehiculos.getIfPresent(id);
+        if (conocida != null) {
+            return conocida;
+        }
+        long generacion = invalidacionesVehiculos.get();
+        long leida = vehiculoRepository.findVersionById(id)
+                .orElseThrow(() -> new VehiculoNotFoundException(id));
+        versionesVehiculos.put(id, leida);
+        // Una invalidación durante la lectura puede haber llegado antes del put: lo leído puede ser
+        // anterior a ese commit y no se conserva
+        if (invalidacionesVehiculos.get() != generacion) {
+            versionesVehiculos.asMap().remove(id, leida);
+        }
+        return leida;
+    }
+
+    private List<Agregado> incrementosDeLaTransaccion() {
+        @SuppressWarnings("unchecked")
+        List<Agregado> incrementos = (List<Agregado>) TransactionSynchronizationManager.getResource(this);
+        if (incrementos != null) {
+            return incrementos;
+        }
+        List<Agregado> nuevos = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, nuevos);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(VersionesAgregados.this);
+                if (status == STATUS_COMMITTED) {
+                    publicarPropios(nuevos);
+                }
+            }
+        });
+        return nuevos;
+    }
+
+    // La cache de segundo nivel ya refleja las escrituras propias: si la versión leída es la anterior más
+    // los incrementos propios se publica sin esperar. Si además escribió otra instancia, sigue el camino normal
+    private synchronized void publicarPropios(List<Agregado> incrementos) {
+        if (publicadas.isEmpty()) {
+            return;
+        }
+        Map<Agregado, Long> leidas = leer();
+        for (Agregado agregado : Agregado.values()) {
+            long propios = incrementos.stream().filter(agregado::equals).count();
+            Long anterior = publicadas.get(agregado);
+            if (propios > 0 && anterior != null && leidas.get(agregado) == anterior + propios) {
+                publicadas.put(agregado, leidas.get(agregado));
+                porPublicar.remove(agregado);
+            }
+        }
+    }
+
+    private Map<Agregado, Long> leer() {
+        Map<Agregado, Long> leidas = new EnumMap<>(Agregado.class);
+        for (Agregado agregado : Agregado.values()) {
+            leidas.put(agregado, 0L);
+        }
+        // Transacción propia: tras un commit la sesión de la escritura todavía puede estar ligada al hilo
+        transaccionNueva.executeWithoutResult(status -> versionAgregadoRepository.findAll()
+                .forEach(fila -> leidas.put(Agregado.valueOf(fila.getAgregado()), fila.getVersion())));
+        return leidas;
+    }
+
+    private void vaciarSegundoNivel(Agregado agregado) {
+        log.debug("Versión de {} cambiada en otra instancia; se vacía su cache de segundo nivel", agregado);
+        entityManagerFactory.getCache().evict(agregado.entidad);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegion(REGION_CONSULTAS_CATALOGO);
+    }
+}
@@ -0,0 +1,42 @@
+-- Esquema base tal como lo generaba Hibernate a partir de las entidades.
+-- En bases existentes Flyway lo marca como baseline y no lo ejecuta.
+
+CREATE TABLE IF NOT EXISTS marcas (
+    id_marca BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nombre   VARCHAR(255) NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS modelos (
+    id_modelo BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nombre    VARCHAR(255) NOT NULL,
+    id_marca  BIGINT       NOT NULL REFERENCES marcas (id_marca)
+);
+
+CREATE TABLE IF NOT EXISTS tipo_vehiculos (
+    id_tipo     INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nombre      VARCHAR(255) NOT NULL UNIQUE,
+    descripcion VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS vehiculos (
+    id_vehiculo      UUID PRIMARY KEY,
+    placa            VARCHAR(255) NOT NULL UNIQUE,
+    id_modelo        BIGINT       NOT NULL REFERENCES modelos (id_modelo),
+    id_tipo          INTEGER      NOT NULL REFERENCES tipo_vehiculos (id_tipo),
+    anio_fabricacion INTEGER,
+    combustible      VARCHAR(255) NOT NULL,
+    descripcion      VARCHAR(255) NOT NULL,
+    creado_en        TIMESTAMP(6) WITH TIME ZONE,
+    estado           VARCHAR(255) NOT NULL,
+    activo           BOOLEAN      NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS mantenimientos (
+    id_mantenimiento BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id_vehiculo      UUID           NOT NULL REFERENCES vehiculos (id_vehiculo),
+    descripcion      VARCHAR(255)   NOT NULL,
+    fecha_inicio     DATE           NOT NULL,
+    fecha_fin        DATE,
+    costo            NUMERIC(38, 2) NOT NULL,
+    finalizado       BOOLEAN        NOT NULL
+);
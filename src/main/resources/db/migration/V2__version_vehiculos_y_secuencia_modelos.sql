@@ -0,0 +1,8 @@
+-- Columna de bloqueo optimista de Vehiculo (@Version)
+ALTER TABLE vehiculos ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Modelo pasa de IDENTITY a una secuencia con allocationSize = 50 (optimizador pooled de Hibernate),
+-- lo que permite agrupar los INSERT en batches JDBC. Cada nextval reserva el rango (valor - 49 .. valor],
+-- por eso la secuencia arranca 50 posiciones por encima del máximo actual.
+CREATE SEQUENCE IF NOT EXISTS modelos_seq INCREMENT BY 50;
+SELECT setval('modelos_seq', COALESCE((SELECT MAX(id_modelo) FROM modelos), 0) + 50, false);
@@ -0,0 +1,4 @@
+-- Alertas de vencimiento: solo interesan los mantenimientos abiertos
+CREATE INDEX IF NOT EXISTS idx_mantenimientos_fecha_fin_abiertos
+    ON mantenimientos (fecha_fin)
+    WHERE finalizado = false;
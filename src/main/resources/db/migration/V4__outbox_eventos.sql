@@ -0,0 +1,16 @@
+-- Outbox transaccional de eventos de vehículos y mantenimientos
+CREATE SEQUENCE IF NOT EXISTS outbox_eventos_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS outbox_eventos (
+    id_evento    BIGINT PRIMARY KEY,
+    id_vehiculo  UUID                     NOT NULL,
+    tipo         VARCHAR(255)             NOT NULL,
+    payload      TEXT                     NOT NULL,
+    creado_en    TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    publicado_en TIMESTAMP(6) WITH TIME ZONE
+);
+
+-- El relay solo recorre los pendientes, en orden de id
+CREATE INDEX IF NOT EXISTS idx_outbox_eventos_pendientes
+    ON outbox_eventos (id_evento)
+    WHERE publicado_en IS NULL;
@@ -0,0 +1,25 @@
+-- Índices para los predicados de VehiculoRepository y MantenimientoRepository
+
+-- Listados por estado (findByEstadoAndActivoTrue, findByEstadoInAndActivoTrue) y filtros del listado paginado
+CREATE INDEX IF NOT EXISTS idx_vehiculos_estado_activo
+    ON vehiculos (estado, activo);
+
+-- Búsquedas por modelo/marca y por tipo: solo se consultan los vehículos activos
+CREATE INDEX IF NOT EXISTS idx_vehiculos_modelo_activos
+    ON vehiculos (id_modelo)
+    WHERE activo = true;
+
+CREATE INDEX IF NOT EXISTS idx_vehiculos_tipo_activos
+    ON vehiculos (id_tipo)
+    WHERE activo = true;
+
+-- Mantenimientos de un vehículo (activos / historial ordenado por fecha_fin) y chequeo de la FK al borrar vehículos.
+-- Los abiertos por fecha_fin ya están cubiertos por idx_mantenimientos_fecha_fin_abiertos (V3).
+CREATE INDEX IF NOT EXISTS idx_mantenimientos_vehiculo_finalizado
+    ON mantenimientos (id_vehiculo, finalizado, fecha_fin);
+
+-- Un único mantenimiento abierto por vehículo. Si la migración falla, los duplicados se listan con:
+--   SELECT id_vehiculo FROM mantenimientos WHERE finalizado = false GROUP BY id_vehiculo HAVING COUNT(*) > 1;
+CREATE UNIQUE INDEX IF NOT EXISTS uq_mantenimientos_vehiculo_abierto
+    ON mantenimientos (id_vehiculo)
+    WHERE finalizado = false;
@@ -0,0 +1,10 @@
+-- Versión de cada catálogo para los ETags: compartida por todas las instancias y
+-- actualizada en la misma transacción que la escritura del catálogo
+CREATE TABLE IF NOT EXISTS versiones_agregados (
+    agregado VARCHAR(20) PRIMARY KEY,
+    version  BIGINT      NOT NULL DEFAULT 0
+);
+
+INSERT INTO versiones_agregados (agregado, version)
+VALUES ('MARCAS', 0), ('MODELOS', 0), ('TIPOS', 0)
+ON CONFLICT (agregado) DO NOTHING;
@@ -0,0 +1,3 @@
+-- Cada id del outbox se pide a la secuencia al insertar: con bloques de 50 por instancia, un cambio posterior
+-- hecho en otra instancia podía recibir un id menor y publicarse antes que el anterior del mismo vehículo
+ALTER SEQUENCE outbox_eventos_seq INCREMENT BY 1;
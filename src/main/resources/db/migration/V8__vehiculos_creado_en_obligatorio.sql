@@ -0,0 +1,12 @@
+-- El listado paginado ordena por (creado_en, id_vehiculo): con creado_en nulo esas filas quedaban fuera de la
+-- condición keyset y se saltaban. Las filas sin fecha de alta se fijan en el epoch (fecha desconocida) y
+-- quedan al principio del recorrido
+UPDATE vehiculos
+SET creado_en = TIMESTAMP WITH TIME ZONE '1970-01-01 00:00:00+00'
+WHERE creado_en IS NULL;
+
+ALTER TABLE vehiculos ALTER COLUMN creado_en SET NOT NULL;
+
+-- Orden y condición keyset del listado paginado
+CREATE INDEX IF NOT EXISTS idx_vehiculos_creado_en_id
+    ON vehiculos (creado_en, id_vehiculo);
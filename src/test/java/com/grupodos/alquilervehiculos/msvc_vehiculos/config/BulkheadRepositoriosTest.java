@@ -0,0 +1,202 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.config;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.exceptions.BaseDatosSaturadaException;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.exceptions.GlobalExceptionHandler;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.exceptions.GlobalExceptionHandler.ErrorResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Un permiso por transacción (devuelto al confirmar o revertir), uno por llamada fuera de transacción,
+ * rechazo con 503 al vencer la espera y ningún permiso perdido cuando la adquisición falla.
+ */
+class BulkheadRepositoriosTest {
+
+    private final ExecutorService otroHilo = Executors.newSingleThreadExecutor();
+    private final TransactionTemplate transaccion = new TransactionTemplate(new TransaccionesEnMemoria());
+
+    @AfterEach
+    void cerrar() {
+        otroHilo.shutdownNow();
+    }
+
+    @Test
+    void unPermisoPorTransaccionDevueltoAlConfirmar() {
+        BulkheadRepositorios bulkhead = new BulkheadRepositorios(3, Duration.ofMillis(100));
+        Repositorio repositorio = repositorio(bulkhead);
+
+        transaccion.executeWithoutResult(status -> {
+            assertThat(repositorio.permisosLibres()).isEqualTo(2);
+            assertThat(repositorio.permisosLibres()).isEqualTo(2);
+            assertThat(repositorio.permisosLibres()).isEqualTo(2);
+        });
+
+        assertThat(bulkhead.getPermisosDisponibles()).isEqualTo(3);
+    }
+
+    @Test
+    void permisoDevueltoAlRevertir() {
+        BulkheadRepositorios bulkhead = new BulkheadRepositorios(3, Duration.ofMillis(100));
+        Repositorio repositorio = repositorio(bulkhead);
+
+        assertThatThrownBy(() -> transaccion.executeWithoutResult(status -> {
+            repositorio.permisosLibres();
+            repositorio.fallar();
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(bulkhead.getPermisosDisponibles()).isEqualTo(3);
+    }
+
+    @Test
+    void fueraDeTransaccionSeDevuelveAlTerminarLaLlamada() {
+        BulkheadRepositorios bulkhead = new BulkheadRepositorios(3, Duration.ofMillis(100));
+        Repositorio repositorio = repositorio(bulkhead);
+
+        assertThat(repositorio.permisosLibres()).isEqualTo(2);
+        assertThat(bulkhead.getPermisosDisponibles()).isEqualTo(3);
+        assertThatThrownBy(repositorio::fallar).isInstanceOf(IllegalStateException.class);
+        assertThat(bulkhead.getPermisosDisponibles()).isEqualTo(3);
+    }
+
+    @Test
+    void esperaVencidaResponde503ConRetryAfter() throws Exception {
+        BulkheadRepositorios bulkhead = new BulkheadRepositorios(1, Duration.ofMillis(50));
+        Repositorio repositorio = repositorio(bulkhead);
+        CountDownLatch terminar = new CountDownLatch(1);
+        retenerPermisoEnOtroHilo(repositorio, terminar);
+
+        Throwable rechazo = catchDesdeOtraLlamada(repositorio);
+        terminar.countDown();
+
+        assertThat(rechazo).isInstanceOf(BaseDatosSaturadaException.class);
+        ResponseEntity<ErrorResponse> respuesta =
+                new GlobalExceptionHandler().handleBaseDatosSaturada((BaseDatosSaturadaException) rechazo);
+        assertThat(respuesta.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(respuesta.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(respuesta.getBody().codigo()).isEqualTo("SERVICIO_SATURADO");
+    }
+
+    @Test
+    void unaAdquisicionFallidaNoDejaPermisoNiRecursoEnLaTransaccion() throws Exception {
+        BulkheadRepositorios bulkhead = new BulkheadRepositorios(1, Duration.ofMillis(50));
+        Repositorio repositorio = repositorio(bulkhead);
+        CountDownLatch terminar = new CountDownLatch(1);
+        Future<?> retenido = retenerPermisoEnOtroHilo(repositorio, terminar);
+
+        transaccion.executeWithoutResult(status -> {
+            assertThatThrownBy(repositorio::permisosLibres).isInstanceOf(BaseDatosSaturadaException.class);
+
+            // Interrumpido mientras espera: tampoco toma permiso y conserva la marca de interrupción
+            Thread.currentThread().interrupt();
+            assertThatThrownBy(repositorio::permisosLibres).isInstanceOf(BaseDatosSaturadaException.class);
+            assertThat(Thread.interrupted()).isTrue();
+
+            terminar.countDown();
+            esperar(retenido);
+            // La misma transacción vuelve a intentar: el intento fallido no quedó registrado como permiso tomado
+            assertThat(repositorio.permisosLibres()).isZero();
+        });
+
+        assertThat(bulkhead.getPermisosDisponibles()).isEqualTo(1);
+    }
+
+    private Future<?> retenerPermisoEnOtroHilo(Repositorio repositorio, CountDownLatch terminar) throws Exception {
+        CountDownLatch tomado = new CountDownLatch(1);
+        Future<?> retenido = otroHilo.submit(() -> transaccion.executeWithoutResult(status -> {
+            repositorio.permisosLibres();
+            tomado.countDown();
+            try {
+                terminar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(tomado.await(5, TimeUnit.SECONDS)).isTrue();
+        return retenido;
+    }
+
+    private static Throwable catchDesdeOtraLlamada(Repositorio repositorio) {
+        try {
+            repositorio.permisosLibres();
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    private static void esperar(Future<?> tarea) {
+        try {
+            tarea.get(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Repositorio repositorio(BulkheadRepositorios bulkhead) {
+        ProxyFactory fabrica = new ProxyFactory();
+        fabrica.setTarget(new Repositorio() {
+            @Override
+            public int permisosLibres() {
+                return bulkhead.getPermisosDisponibles();
+            }
+
+            @Override
+            public void fallar() {
+                throw new IllegalStateException("fallo del repositorio");
+            }
+        });
+        fabrica.addInterface(Repositorio.class);
+        fabrica.addAdvice(bulkhead);
+        return (Repositorio) fabrica.getProxy();
+    }
+
+    interface Repositorio {
+        int permisosLibres();
+
+        void fallar();
+    }
+
+    // Sin recursos reales: solo activa la sincronización de transacciones como cualquier gestor de Spring
+    private static class TransaccionesEnMemoria extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
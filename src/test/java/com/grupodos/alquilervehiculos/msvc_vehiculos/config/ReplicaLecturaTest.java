@@ -0,0 +1,59 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.config;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.VehiculoRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.services.VehiculoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dos bases H2 en memoria: la primaria que crea Hibernate y una "réplica" con solo tres vehículos.
+ * Cada lectura debe responder con los datos de la base a la que la mandó el ruteo.
+ */
+@SpringBootTest(properties = {
+        // Primaria propia: este contexto no recrea el esquema ni corre el relay de outbox sobre la base compartida
+        "spring.datasource.url=jdbc:h2:mem:vehiculos-primaria;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "vehiculos.replica.url=" + ReplicaLecturaTest.URL_REPLICA})
+class ReplicaLecturaTest {
+
+    static final String URL_REPLICA = "jdbc:h2:mem:vehiculos-replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private VehiculoService vehiculoService;
+
+    @Autowired
+    private VehiculoRepository vehiculoRepository;
+
+    @BeforeEach
+    void sembrarReplica() throws SQLException {
+        try (Connection conexion = DriverManager.getConnection(URL_REPLICA, "sa", "");
+             Statement sentencia = conexion.createStatement()) {
+            sentencia.execute("DROP TABLE IF EXISTS vehiculos");
+            sentencia.execute("DROP TABLE IF EXISTS tipo_vehiculos");
+            sentencia.execute("CREATE TABLE tipo_vehiculos (id_tipo INTEGER PRIMARY KEY)");
+            sentencia.execute("INSERT INTO tipo_vehiculos VALUES (1)");
+            sentencia.execute("CREATE TABLE vehiculos (id_vehiculo UUID PRIMARY KEY, id_tipo INTEGER, activo BOOLEAN)");
+            sentencia.execute("""
+                    INSERT INTO vehiculos VALUES
+                        (RANDOM_UUID(), 1, TRUE), (RANDOM_UUID(), 1, TRUE), (RANDOM_UUID(), 1, TRUE)""");
+        }
+    }
+
+    @Test
+    void lecturaToleranteVaALaReplica() {
+        assertThat(vehiculoService.contarPorTipo(1L)).isEqualTo(3);
+    }
+
+    @Test
+    void lecturaSinEtiquetaSigueEnLaPrimaria() {
+        assertThat(vehiculoRepository.countByTipoVehiculoIdAndActivoTrue(1)).isZero();
+    }
+}
@@ -0,0 +1,188 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Marca;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Modelo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.TipoVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.MarcaRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.ModeloRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.TipoVehiculoRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.VehiculoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Importación masiva por JSON y CSV: las filas inválidas, repetidas o vacías se informan por fila sin
+ * frenar a las válidas, y un lote por encima del máximo configurado responde 400 sin crear nada.
+ */
+@SpringBootTest(properties = {
+        "vehiculos.importacion.maximo-filas=5",
+        "vehiculos.importacion.tamanio-lote=2",
+        "spring.datasource.url=jdbc:h2:mem:vehiculos-importacion;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH"
+})
+@AutoConfigureMockMvc
+class ImportacionVehiculosControllerTest {
+
+    private static final AtomicInteger PLACAS = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private VehiculoRepository vehiculoRepository;
+
+    @Autowired
+    private MarcaRepository marcaRepository;
+
+    @Autowired
+    private ModeloRepository modeloRepository;
+
+    @Autowired
+    private TipoVehiculoRepository tipoVehiculoRepository;
+
+    // Una sola vez: el catálogo se escribe por repositorio, sin subir la versión de las caches de catálogo
+    private static Modelo modelo;
+    private static TipoVehiculo tipo;
+
+    @BeforeEach
+    void crearCatalogo() {
+        if (modelo != null) {
+            return;
+        }
+        Marca marca = new Marca();
+        marca.setNombre("Importada" + PLACAS.incrementAndGet());
+        marca = marcaRepository.save(marca);
+
+        modelo = new Modelo();
+        modelo.setNombre("Lote");
+        modelo.setMarca(marca);
+        modelo = modeloRepository.save(modelo);
+
+        tipo = new TipoVehiculo();
+        tipo.setNombre("Importado" + PLACAS.get());
+        tipo = tipoVehiculoRepository.save(tipo);
+    }
+
+    @Test
+    void jsonInformaPorFilaLasInvalidasRepetidasYVacias() throws Exception {
+        String placa = placa();
+        String cuerpo = "[" + String.join(",",
+                fila(placa),
+                fila("no valida"),
+                "null",
+                fila(placa),
+                fila(placa())) + "]";
+
+        JsonNode resultado = leer(post("/api/vehiculos/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(cuerpo));
+
+        assertThat(resultado.path("total").asInt()).isEqualTo(5);
+        assertThat(resultado.path("creados").asInt()).isEqualTo(2);
+        assertThat(filasConError(resultado)).containsExactly(2, 3, 4);
+        assertThat(resultado.path("errores").get(1).path("mensaje").asText()).isEqualTo("Fila vacía");
+        assertThat(resultado.path("errores").get(2).path("mensaje").asText()).contains("Placa repetida");
+        assertThat(vehiculoRepository.findPlacasExistentes(Set.of(placa))).containsExactly(placa);
+    }
+
+    @Test
+    void jsonPorEncimaDelMaximoResponde400() throws Exception {
+        List<String> filas = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            filas.add(fila(placa()));
+        }
+        long antes = vehiculoRepository.count();
+
+        mockMvc.perform(post("/api/vehiculos/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + String.join(",", filas) + "]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.codigo").value("ARGUMENTO_INVALIDO"));
+
+        assertThat(vehiculoRepository.count()).isEqualTo(antes);
+    }
+
+    @Test
+    void csvInformaPorFilaLosValoresNoConvertibles() throws Exception {
+        String csv = "placa,modeloId,tipoVehiculoId,anioFabricacion,combustible,descripcion\n"
+                + lineaCsv(placa(), String.valueOf(modelo.getId())) + "\n"
+                + "\n"
+                + lineaCsv(placa(), "abc") + "\n"
+                + lineaCsv(placa(), String.valueOf(modelo.getId())) + "\n";
+
+        JsonNode resultado = leer(multipart("/api/vehiculos/bulk").file(archivo(csv)));
+
+        assertThat(resultado.path("total").asInt()).isEqualTo(3);
+        assertThat(resultado.path("creados").asInt()).isEqualTo(2);
+        assertThat(filasConError(resultado)).containsExactly(2);
+    }
+
+    @Test
+    void csvPorEncimaDelMaximoResponde400() throws Exception {
+        StringBuilder csv = new StringBuilder("placa,modeloId,tipoVehiculoId,anioFabricacion,combustible,descripcion\n");
+        for (int i = 0; i < 6; i++) {
+            csv.append(lineaCsv(placa(), String.valueOf(modelo.getId()))).append('\n');
+        }
+        long antes = vehiculoRepository.count();
+
+        mockMvc.perform(multipart("/api/vehiculos/bulk").file(archivo(csv.toString())))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.codigo").value("ARGUMENTO_INVALIDO"));
+
+        assertThat(vehiculoRepository.count()).isEqualTo(antes);
+    }
+
+    private JsonNode leer(MockHttpServletRequestBuilder peticion) throws Exception {
+        String cuerpo = mockMvc.perform(peticion)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(cuerpo);
+    }
+
+    private static List<Integer> filasConError(JsonNode resultado) {
+        List<Integer> filas = new ArrayList<>();
+        resultado.path("errores").forEach(error -> filas.add(error.path("fila").asInt()));
+        return filas;
+    }
+
+    private String fila(String placa) {
+        return String.format("{\"placa\":\"%s\",\"modeloId\":%d,\"tipoVehiculoId\":%d,"
+                        + "\"anioFabricacion\":2023,\"combustible\":\"GASOLINA\",\"descripcion\":\"Importado\"}",
+                placa, modelo.getId(), tipo.getId());
+    }
+
+    private String lineaCsv(String placa, String modeloId) {
+        return String.join(",", placa, modeloId, String.valueOf(tipo.getId()), "2023", "diesel", "\"Con, coma\"");
+    }
+
+    private static MockMultipartFile archivo(String csv) {
+        return new MockMultipartFile("archivo", "vehiculos.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String placa() {
+        return String.format("IMP%04d", PLACAS.incrementAndGet());
+    }
+}
@@ -0,0 +1,47 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.controllers;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.services.MarcaService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * If-None-Match con el ETag vigente devuelve 304; tras una escritura el ETag cambia.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class MarcaControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MarcaService marcaService;
+
+    @Test
+    void getCondicionalDevuelve304HastaQueLaMarcaCambia() throws Exception {
+        String etag = mockMvc.perform(get("/api/marcas"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.CACHE_CONTROL))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotBlank();
+
+        mockMvc.perform(get("/api/marcas").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        marcaService.crearMarca("Etag");
+
+        String nuevoEtag = mockMvc.perform(get("/api/marcas").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(nuevoEtag).isNotEqualTo(etag);
+    }
+}
@@ -0,0 +1,153 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Marca;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Modelo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.TipoVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Vehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.EstadoVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.TipoCombustible;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.MarcaRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.ModeloRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.TipoVehiculoRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.VehiculoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Listado paginado por cursor: el recorrido completo entrega cada vehículo una vez (también con la misma
+ * fecha de alta), respeta los filtros y un cursor inválido responde 400.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class VehiculoControllerTest {
+
+    private static final AtomicInteger PLACAS = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private VehiculoRepository vehiculoRepository;
+
+    @Autowired
+    private MarcaRepository marcaRepository;
+
+    @Autowired
+    private ModeloRepository modeloRepository;
+
+    @Autowired
+    private TipoVehiculoRepository tipoVehiculoRepository;
+
+    private Modelo modelo;
+    private TipoVehiculo tipo;
+
+    @BeforeEach
+    void crearCatalogo() {
+        Marca marca = new Marca();
+        marca.setNombre("Paginada" + PLACAS.incrementAndGet());
+        marca = marcaRepository.save(marca);
+
+        modelo = new Modelo();
+        modelo.setNombre("Cursor");
+        modelo.setMarca(marca);
+        modelo = modeloRepository.save(modelo);
+
+        tipo = new TipoVehiculo();
+        tipo.setNombre("Paginado" + PLACAS.get());
+        tipo = tipoVehiculoRepository.save(tipo);
+    }
+
+    @Test
+    void recorreTodasLasPaginasSinRepetirNiSaltarFilas() throws Exception {
+        // Cinco con la misma fecha de alta: el desempate por id decide el orden
+        OffsetDateTime mismoInstante = OffsetDateTime.now();
+        List<String> esperados = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            esperados.add(crearVehiculo(i < 5 ? mismoInstante : mismoInstante.plusSeconds(i), EstadoVehiculo.DISPONIBLE));
+        }
+
+        List<String> recibidos = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            MockHttpServletRequestBuilder peticion = get("/api/vehiculos")
+                    .param("marcaId", modelo.getMarca().getId().toString())
+                    .param("tamanio", "3");
+            if (cursor != null) {
+                peticion.param("cursor", cursor);
+            }
+            JsonNode pagina = leer(peticion);
+            pagina.path("contenido").forEach(vehiculo -> recibidos.add(vehiculo.path("id").asText()));
+            assertThat(pagina.path("contenido").get(0).has("marca")).isTrue();
+            cursor = pagina.path("siguienteCursor").isNull() ? null : pagina.path("siguienteCursor").asText();
+            paginas++;
+        } while (cursor != null);
+
+        assertThat(paginas).isEqualTo(3);
+        assertThat(recibidos).containsExactlyInAnyOrderElementsOf(esperados).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void aplicaLosFiltrosEnCadaPagina() throws Exception {
+        crearVehiculo(OffsetDateTime.now(), EstadoVehiculo.DISPONIBLE);
+        String alquilado = crearVehiculo(OffsetDateTime.now(), EstadoVehiculo.ALQUILADO);
+        crearVehiculo(OffsetDateTime.now(), EstadoVehiculo.DISPONIBLE);
+
+        JsonNode pagina = leer(get("/api/vehiculos")
+                .param("tipoId", tipo.getId().toString())
+                .param("estado", "ALQUILADO"));
+
+        assertThat(pagina.path("contenido")).hasSize(1);
+        assertThat(pagina.path("contenido").get(0).path("id").asText()).isEqualTo(alquilado);
+        assertThat(pagina.path("contenido").get(0).path("estado").asText()).isEqualTo("ALQUILADO");
+        assertThat(pagina.path("siguienteCursor").isNull()).isTrue();
+    }
+
+    @Test
+    void cursorInvalidoResponde400() throws Exception {
+        mockMvc.perform(get("/api/vehiculos").param("cursor", "no-es-un-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.codigo").value("ARGUMENTO_INVALIDO"));
+    }
+
+    private JsonNode leer(MockHttpServletRequestBuilder peticion) throws Exception {
+        String cuerpo = mockMvc.perform(peticion)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(cuerpo);
+    }
+
+    private String crearVehiculo(OffsetDateTime creadoEn, EstadoVehiculo estado) {
+        Vehiculo vehiculo = new Vehiculo();
+        vehiculo.setPlaca(String.format("PAG%04d", PLACAS.incrementAndGet()));
+        vehiculo.setModelo(modelo);
+        vehiculo.setTipoVehiculo(tipo);
+        vehiculo.setAnioFabricacion(2022);
+        vehiculo.setCombustible(TipoCombustible.GASOLINA);
+        vehiculo.setDescripcion("Vehículo para prueba de paginación");
+        vehiculo.setCreadoEn(creadoEn);
+        vehiculo.setEstado(estado);
+        vehiculo.setActivo(true);
+        return vehiculoRepository.save(vehiculo).getId().toString();
+    }
+}
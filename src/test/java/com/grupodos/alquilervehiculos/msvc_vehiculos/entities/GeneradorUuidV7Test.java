@@ -0,0 +1,37 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.entities;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Los ids generados son UUID v7 válidos y quedan en orden de creación, también dentro del mismo milisegundo.
+ */
+class GeneradorUuidV7Test {
+
+    // Orden de bytes sin signo, el mismo que usa PostgreSQL para la columna uuid
+    private static final Comparator<UUID> ORDEN_BYTES = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    @Test
+    void generaIdsVersion7OrdenadosPorTiempo() {
+        long antes = System.currentTimeMillis();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            ids.add(GeneradorUuidV7.generar());
+        }
+
+        assertThat(ids).allSatisfy(id -> {
+            assertThat(id.version()).isEqualTo(7);
+            assertThat(id.variant()).isEqualTo(2);
+        });
+        assertThat(ids).doesNotHaveDuplicates().isSortedAccordingTo(ORDEN_BYTES);
+        assertThat(ids.getFirst().getMostSignificantBits() >>> 16).isGreaterThanOrEqualTo(antes);
+    }
+}
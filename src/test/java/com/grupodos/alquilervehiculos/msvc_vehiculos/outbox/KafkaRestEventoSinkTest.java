@@ -0,0 +1,78 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.OutboxEvento;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.jsonPath;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * El lote se envía en un único POST al tópico, con el vehículo como clave; un error del proxy se propaga
+ * para que el relay reintente.
+ */
+class KafkaRestEventoSinkTest {
+
+    private static final UUID VEHICULO = UUID.fromString("01900000-0000-7000-8000-000000000001");
+
+    private MockRestServiceServer servidor;
+    private KafkaRestEventoSink sink;
+
+    @BeforeEach
+    void crearSink() {
+        RestClient.Builder builder = RestClient.builder();
+        servidor = MockRestServiceServer.bindTo(builder).build();
+        sink = new KafkaRestEventoSink(builder, new ObjectMapper(), "http://proxy:8082", "vehiculos-cambios");
+    }
+
+    @Test
+    void publicaElLoteConElVehiculoComoClave() throws Exception {
+        servidor.expect(requestTo("http://proxy:8082/topics/vehiculos-cambios"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(content().contentType(KafkaRestEventoSink.KAFKA_JSON))
+                .andExpect(jsonPath("$.records.length()").value(2))
+                .andExpect(jsonPath("$.records[0].key").value(VEHICULO.toString()))
+                .andExpect(jsonPath("$.records[0].value.id").value(1))
+                .andExpect(jsonPath("$.records[1].value.tipo").value("VEHICULO_ELIMINADO"))
+                .andExpect(jsonPath("$.records[1].value.payload.activo").value(false))
+                .andRespond(withSuccess());
+
+        sink.publicar(List.of(evento(1L, "VEHICULO_ESTADO", "{\"activo\":true}"),
+                evento(2L, "VEHICULO_ELIMINADO", "{\"activo\":false}")));
+
+        servidor.verify();
+    }
+
+    @Test
+    void unErrorDelProxySePropaga() {
+        servidor.expect(requestTo("http://proxy:8082/topics/vehiculos-cambios"))
+                .andRespond(withServerError());
+
+        assertThatThrownBy(() -> sink.publicar(List.of(evento(3L, "VEHICULO_ESTADO", "{}"))))
+                .isInstanceOf(RestClientException.class);
+    }
+
+    private static OutboxEvento evento(long id, String tipo, String payload) {
+        OutboxEvento evento = new OutboxEvento();
+        evento.setId(id);
+        evento.setVehiculoId(VEHICULO);
+        evento.setTipo(tipo);
+        evento.setPayload(payload);
+        evento.setCreadoEn(OffsetDateTime.now());
+        return evento;
+    }
+}
@@ -0,0 +1,109 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.outbox;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.MsvcVehiculosApplication;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Marca;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Modelo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.OutboxEvento;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.TipoVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Vehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.EstadoVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.TipoCombustible;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.MarcaRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.ModeloRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.OutboxEventoRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.TipoVehiculoRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.VehiculoRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.services.VehiculoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dos instancias sobre la misma base toman ids de la misma secuencia: los cambios alternados de un
+ * vehículo deben quedar en el outbox con ids crecientes en el orden en que se confirmaron.
+ */
+@SpringBootTest(properties = "spring.datasource.url=" + OutboxOrdenInstanciasTest.URL)
+class OutboxOrdenInstanciasTest {
+
+    static final String URL = "jdbc:h2:mem:vehiculos-outbox;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH";
+
+    @Autowired
+    private VehiculoService vehiculoService;
+
+    @Autowired
+    private OutboxEventoRepository outboxEventoRepository;
+
+    @Autowired
+    private VehiculoRepository vehiculoRepository;
+
+    @Autowired
+    private MarcaRepository marcaRepository;
+
+    @Autowired
+    private ModeloRepository modeloRepository;
+
+    @Autowired
+    private TipoVehiculoRepository tipoVehiculoRepository;
+
+    @Test
+    void cambiosAlternadosEntreInstanciasConservanElOrdenPorVehiculo() {
+        UUID id = crearVehiculoDisponible();
+
+        // La segunda instancia usa el esquema que ya creó este contexto
+        try (ConfigurableApplicationContext otraInstancia = new SpringApplicationBuilder(MsvcVehiculosApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + URL, "--spring.jpa.hibernate.ddl-auto=none")) {
+            VehiculoService otroServicio = otraInstancia.getBean(VehiculoService.class);
+
+            vehiculoService.actualizarEstado(id, EstadoVehiculo.ALQUILADO);
+            otroServicio.actualizarEstado(id, EstadoVehiculo.DISPONIBLE);
+            vehiculoService.actualizarEstado(id, EstadoVehiculo.ALQUILADO);
+            otroServicio.actualizarEstado(id, EstadoVehiculo.DISPONIBLE);
+        }
+
+        assertThat(outboxEventoRepository.findAll(Sort.by("id")))
+                .filteredOn(evento -> evento.getVehiculoId().equals(id))
+                .extracting(OutboxEvento::getPayload)
+                .satisfiesExactly(
+                        payload -> assertThat(payload).contains("\"estado\":\"ALQUILADO\""),
+                        payload -> assertThat(payload).contains("\"estado\":\"DISPONIBLE\""),
+                        payload -> assertThat(payload).contains("\"estado\":\"ALQUILADO\""),
+                        payload -> assertThat(payload).contains("\"estado\":\"DISPONIBLE\""));
+    }
+
+    private UUID crearVehiculoDisponible() {
+        Marca marca = new Marca();
+        marca.setNombre("Orden");
+        marca = marcaRepository.save(marca);
+
+        Modelo modelo = new Modelo();
+        modelo.setNombre("Instancias");
+        modelo.setMarca(marca);
+        modelo = modeloRepository.save(modelo);
+
+        TipoVehiculo tipo = new TipoVehiculo();
+        tipo.setNombre("Orden");
+        tipo = tipoVehiculoRepository.save(tipo);
+
+        Vehiculo vehiculo = new Vehiculo();
+        vehiculo.setPlaca("ORDN001");
+        vehiculo.setModelo(modelo);
+        vehiculo.setTipoVehiculo(tipo);
+        vehiculo.setAnioFabricacion(2023);
+        vehiculo.setCombustible(TipoCombustible.GASOLINA);
+        vehiculo.setDescripcion("Vehículo para prueba de orden del outbox");
+        vehiculo.setCreadoEn(OffsetDateTime.now());
+        vehiculo.setEstado(EstadoVehiculo.DISPONIBLE);
+        vehiculo.setActivo(true);
+        return vehiculoRepository.save(vehiculo).getId();
+    }
+}
@@ -0,0 +1,113 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.outbox;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Marca;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Modelo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.OutboxEvento;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.TipoVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Vehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.EstadoVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.TipoCombustible;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.MarcaRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.ModeloRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.OutboxEventoRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.TipoVehiculoRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.VehiculoRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.services.VehiculoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Los cambios de estado se registran en el outbox junto con la transacción y el relay los
+ * entrega en orden; un cambio revertido no deja evento.
+ */
+@SpringBootTest(properties = {
+        // El relay programado corre solo al arrancar: si no, puede tomar parte de los eventos de la prueba
+        "outbox.relay.intervalo=1h",
+        "spring.datasource.url=jdbc:h2:mem:vehiculos-outbox-relay;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH"})
+class OutboxRelayTest {
+
+    @Autowired
+    private VehiculoService vehiculoService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private MemoriaEventoSink sink;
+
+    @Autowired
+    private OutboxEventoRepository outboxEventoRepository;
+
+    @Autowired
+    private VehiculoRepository vehiculoRepository;
+
+    @Autowired
+    private MarcaRepository marcaRepository;
+
+    @Autowired
+    private ModeloRepository modeloRepository;
+
+    @Autowired
+    private TipoVehiculoRepository tipoVehiculoRepository;
+
+    @Test
+    void publicaLosCambiosDeEstadoEnOrdenYSoloLosConfirmados() {
+        UUID id = crearVehiculoDisponible();
+
+        vehiculoService.actualizarEstado(id, EstadoVehiculo.ALQUILADO);
+        // ALQUILADO -> EN_MANTENIMIENTO no es válido: la transacción se revierte sin dejar evento
+        assertThatThrownBy(() -> vehiculoService.actualizarEstado(id, EstadoVehiculo.EN_MANTENIMIENTO))
+                .isInstanceOf(IllegalStateException.class);
+        vehiculoService.actualizarEstado(id, EstadoVehiculo.DISPONIBLE);
+
+        outboxRelay.publicarPendientes();
+
+        assertThat(sink.getPublicados())
+                .filteredOn(evento -> evento.getVehiculoId().equals(id))
+                .extracting(OutboxEvento::getTipo)
+                .containsExactly("VEHICULO_ESTADO", "VEHICULO_ESTADO");
+        assertThat(sink.getPublicados())
+                .filteredOn(evento -> evento.getVehiculoId().equals(id))
+                .extracting(OutboxEvento::getPayload)
+                .satisfiesExactly(
+                        payload -> assertThat(payload).contains("\"estado\":\"ALQUILADO\""),
+                        payload -> assertThat(payload).contains("\"estado\":\"DISPONIBLE\""));
+        assertThat(outboxEventoRepository.findAll())
+                .filteredOn(evento -> evento.getVehiculoId().equals(id))
+                .allSatisfy(evento -> assertThat(evento.getPublicadoEn()).isNotNull());
+    }
+
+    private UUID crearVehiculoDisponible() {
+        Marca marca = new Marca();
+        marca.setNombre("Outbox");
+        marca = marcaRepository.save(marca);
+
+        Modelo modelo = new Modelo();
+        modelo.setNombre("Relay");
+        modelo.setMarca(marca);
+        modelo = modeloRepository.save(modelo);
+
+        TipoVehiculo tipo = new TipoVehiculo();
+        tipo.setNombre("Outbox");
+        tipo = tipoVehiculoRepository.save(tipo);
+
+        Vehiculo vehiculo = new Vehiculo();
+        vehiculo.setPlaca("OUTB001");
+        vehiculo.setModelo(modelo);
+        vehiculo.setTipoVehiculo(tipo);
+        vehiculo.setAnioFabricacion(2023);
+        vehiculo.setCombustible(TipoCombustible.GASOLINA);
+        vehiculo.setDescripcion("Vehículo para prueba de outbox");
+        vehiculo.setCreadoEn(OffsetDateTime.now());
+        vehiculo.setEstado(EstadoVehiculo.DISPONIBLE);
+        vehiculo.setActivo(true);
+        return vehiculoRepository.save(vehiculo).getId();
+    }
+}
@@ -0,0 +1,127 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.repositories;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.VehiculoFiltroDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.VehiculoResponseDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Marca;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Modelo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.TipoVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Vehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.EstadoVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.TipoCombustible;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica que las lecturas de vehículos emitan un número constante de sentencias SQL
+ * sin importar cuántas filas (y catálogos distintos) existan.
+ */
+@DataJpaTest
+class VehiculoRepositoryTest {
+
+    private static final VehiculoFiltroDto FILTRO_ACTIVOS =
+            new VehiculoFiltroDto(null, null, null, null, true, null, null);
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private VehiculoRepository vehiculoRepository;
+
+    private Statistics statistics;
+    private int secuencia;
+
+    @BeforeEach
+    void setUp() {
+        statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void lecturasEmitenUnaSolaSentenciaSinImportarElTamanioDeLaFlota() {
+        Marca marca = sembrar(3);
+        UUID id = sembrar(1, marca);
+        assertThat(contarSentencias(marca.getId(), id)).containsOnly(1L);
+
+        sembrar(40, marca);
+        sembrar(40);
+        assertThat(contarSentencias(marca.getId(), id)).containsOnly(1L);
+    }
+
+    private long[] contarSentencias(Long marcaId, UUID id) {
+        return new long[]{
+                sentencias(() -> vehiculoRepository.findByEstadoAndActivoTrue(EstadoVehiculo.DISPONIBLE)),
+                sentencias(() -> vehiculoRepository.findByModeloMarcaIdAndActivoTrue(marcaId)),
+                sentencias(() -> vehiculoRepository.findAllParaReportes()),
+                sentencias(() -> {
+                    try (Stream<VehiculoResponseDto> filas = vehiculoRepository.streamAllParaReportes()) {
+                        filas.forEach(fila -> { });
+                    }
+                }),
+                sentencias(() -> vehiculoRepository.findContratoById(id)),
+                sentencias(() -> vehiculoRepository.findContratosByIdIn(List.of(id, UUID.randomUUID()))),
+                sentencias(() -> vehiculoRepository.findById(id)),
+                sentencias(() -> vehiculoRepository.findBy(
+                        VehiculoSpecifications.listado(FILTRO_ACTIVOS, null),
+                        q -> q.sortBy(Sort.by("creadoEn", "id")).limit(20).all()))
+        };
+    }
+
+    private long sentencias(Runnable consulta) {
+        em.flush();
+        em.clear();
+        statistics.clear();
+        consulta.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Marca sembrar(int cantidad) {
+        Marca marca = new Marca();
+        marca.setNombre("Marca" + secuencia++);
+        em.persist(marca);
+        sembrar(cantidad, marca);
+        return marca;
+    }
+
+    // Cada vehículo recibe su propio modelo y tipo para forzar padres distintos
+    private UUID sembrar(int cantidad, Marca marca) {
+        UUID ultimo = null;
+        for (int i = 0; i < cantidad; i++) {
+            int n = secuencia++;
+
+            Modelo modelo = new Modelo();
+            modelo.setNombre("Modelo" + n);
+            modelo.setMarca(marca);
+            em.persist(modelo);
+
+            TipoVehiculo tipo = new TipoVehiculo();
+            tipo.setNombre("Tipo" + n);
+            em.persist(tipo);
+
+            Vehiculo vehiculo = new Vehiculo();
+            vehiculo.setPlaca(String.format("PLC%04d", n));
+            vehiculo.setModelo(modelo);
+            vehiculo.setTipoVehiculo(tipo);
+            vehiculo.setAnioFabricacion(2020);
+            vehiculo.setCombustible(TipoCombustible.GASOLINA);
+            vehiculo.setDescripcion("Vehículo " + n);
+            vehiculo.setCreadoEn(OffsetDateTime.now());
+            vehiculo.setEstado(EstadoVehiculo.DISPONIBLE);
+            vehiculo.setActivo(true);
+            em.persist(vehiculo);
+            ultimo = vehiculo.getId();
+        }
+        return ultimo;
+    }
+}
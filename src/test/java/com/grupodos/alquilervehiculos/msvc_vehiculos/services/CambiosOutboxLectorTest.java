@@ -0,0 +1,111 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.VehiculoCambioDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.OutboxEvento;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.EstadoVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.OutboxEventoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Un id que falta entre dos leídos se vuelve a buscar y se difunde cuando su transacción confirma;
+ * vencida la espera se abandona.
+ */
+class CambiosOutboxLectorTest {
+
+    private final OutboxEventoRepository repositorio = mock(OutboxEventoRepository.class);
+    private final CambiosVehiculoFeed feed = mock(CambiosVehiculoFeed.class);
+    private final VersionesAgregados versionesAgregados = mock(VersionesAgregados.class);
+
+    @BeforeEach
+    void partirDelId10() {
+        when(repositorio.findMaxId()).thenReturn(Optional.of(10L));
+        when(repositorio.findByIdGreaterThanOrderByIdAsc(any(), any())).thenReturn(List.of());
+    }
+
+    @Test
+    void unHuecoSeDifundeCuandoSuTransaccionConfirma() {
+        CambiosOutboxLector lector = lector(Duration.ofMinutes(1));
+        lector.leerNuevos();
+        OutboxEvento once = evento(11L, "VEHICULO_ESTADO");
+        OutboxEvento trece = evento(13L, "VEHICULO_ESTADO");
+        OutboxEvento mantenimiento = evento(14L, "MANTENIMIENTO_CREADO");
+        when(repositorio.findByIdGreaterThanOrderByIdAsc(eq(10L), any())).thenReturn(List.of(once, trece, mantenimiento));
+        lector.leerNuevos();
+
+        OutboxEvento doce = evento(12L, "VEHICULO_ESTADO");
+        when(repositorio.findAllById(anyIterable())).thenReturn(List.of(doce));
+        lector.leerNuevos();
+        lector.leerNuevos();
+
+        InOrder orden = inOrder(feed);
+        orden.verify(feed).difundir(cambio(once));
+        orden.verify(feed).difundir(cambio(trece));
+        orden.verify(feed).difundir(cambio(doce));
+        verify(feed, times(3)).difundir(any());
+        verify(repositorio, times(1)).findAllById(anyIterable());
+        verify(repositorio, atLeastOnce()).findByIdGreaterThanOrderByIdAsc(eq(14L), any());
+    }
+
+    @Test
+    void unHuecoVencidoSeAbandona() {
+        CambiosOutboxLector lector = lector(Duration.ZERO);
+        lector.leerNuevos();
+        when(repositorio.findByIdGreaterThanOrderByIdAsc(eq(10L), any()))
+                .thenReturn(List.of(evento(11L, "VEHICULO_ESTADO"), evento(13L, "VEHICULO_ESTADO")));
+        when(repositorio.findAllById(anyIterable())).thenReturn(List.of());
+        lector.leerNuevos();
+
+        lector.leerNuevos();
+        lector.leerNuevos();
+
+        verify(repositorio, times(1)).findAllById(anyIterable());
+        verify(feed, times(2)).difundir(any());
+    }
+
+    @Test
+    void alArrancarNoDifundeLoAnterior() {
+        lector(Duration.ofMinutes(1)).leerNuevos();
+
+        verify(repositorio, never()).findByIdGreaterThanOrderByIdAsc(any(), any());
+        verify(feed, never()).difundir(any());
+    }
+
+    private CambiosOutboxLector lector(Duration esperaHuecos) {
+        return new CambiosOutboxLector(repositorio, feed, versionesAgregados, new ObjectMapper(), 100, esperaHuecos);
+    }
+
+    private static OutboxEvento evento(long id, String tipo) {
+        OutboxEvento evento = new OutboxEvento();
+        evento.setId(id);
+        evento.setVehiculoId(new UUID(0, id));
+        evento.setTipo(tipo);
+        evento.setPayload("""
+                {"id":"%s","tipo":"ESTADO","estado":"ALQUILADO","activo":true}""".formatted(new UUID(0, id)));
+        evento.setCreadoEn(OffsetDateTime.now());
+        return evento;
+    }
+
+    private static VehiculoCambioDto cambio(OutboxEvento evento) {
+        return new VehiculoCambioDto(evento.getVehiculoId(), EstadoVehiculo.ALQUILADO, true);
+    }
+}
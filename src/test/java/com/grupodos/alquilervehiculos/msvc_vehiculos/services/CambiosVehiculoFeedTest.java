@@ -0,0 +1,156 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.services;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.VehiculoCambioDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.EstadoVehiculo;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reanudación con Last-Event-ID desde el buffer, "reinicio" cuando no se puede reanudar, desconexión del
+ * cliente que no vacía su cola y latido para conexiones inactivas.
+ */
+class CambiosVehiculoFeedTest {
+
+    private static final Pattern ID = Pattern.compile("id:(\\S+)");
+
+    @Test
+    void reanudaConLosCambiosPosterioresAlUltimoRecibido() throws Exception {
+        CambiosVehiculoFeed feed = feed(10, 10);
+        EmisorGrabado primero = (EmisorGrabado) feed.suscribir(null);
+        List<VehiculoCambioDto> cambios = difundir(feed, 3);
+        List<String> recibidos = List.of(primero.siguiente(), primero.siguiente(), primero.siguiente());
+
+        EmisorGrabado reconectado = (EmisorGrabado) feed.suscribir(id(recibidos.getFirst()));
+
+        assertThat(reconectado.siguiente()).contains(id(recibidos.get(1)), cambios.get(1).id().toString());
+        assertThat(reconectado.siguiente()).contains(id(recibidos.get(2)), cambios.get(2).id().toString());
+        assertThat(reconectado.nada()).isTrue();
+    }
+
+    @Test
+    void sinPoderReanudarSeEnviaReinicio() throws Exception {
+        CambiosVehiculoFeed feed = feed(2, 10);
+        EmisorGrabado primero = (EmisorGrabado) feed.suscribir(null);
+        difundir(feed, 4);
+        String idPerdido = id(primero.siguiente());
+
+        // El primer cambio ya salió del buffer de 2
+        EmisorGrabado atrasado = (EmisorGrabado) feed.suscribir(idPerdido);
+        assertThat(atrasado.siguiente()).contains("event:reinicio");
+        assertThat(atrasado.nada()).isTrue();
+
+        // Id emitido por otra instancia o por un arranque anterior
+        EmisorGrabado deOtraInstancia = (EmisorGrabado) feed.suscribir("otro-1");
+        assertThat(deOtraInstancia.siguiente()).contains("event:reinicio");
+    }
+
+    @Test
+    void clienteLentoSeDesconectaSinFrenarALosDemas() throws Exception {
+        CambiosVehiculoFeed feed = feed(10, 2);
+        EmisorGrabado lento = (EmisorGrabado) feed.suscribir(null);
+        lento.bloquear();
+        EmisorGrabado rapido = (EmisorGrabado) feed.suscribir(null);
+
+        // El rápido recibe cada cambio mientras la cola del lento (2) se llena y desborda
+        for (int i = 0; i < 5; i++) {
+            difundir(feed, 1);
+            assertThat(rapido.siguiente()).contains("event:vehiculo");
+        }
+
+        assertThat(lento.completado.await(5, TimeUnit.SECONDS)).isTrue();
+        lento.liberar();
+    }
+
+    @Test
+    void latidoParaClientesInactivos() throws Exception {
+        CambiosVehiculoFeed feed = feed(10, 10);
+        EmisorGrabado emisor = (EmisorGrabado) feed.suscribir(null);
+
+        feed.enviarLatido();
+
+        assertThat(emisor.siguiente()).contains("latido");
+    }
+
+    private static CambiosVehiculoFeed feed(int buffer, int cola) {
+        return new CambiosVehiculoFeed(buffer, cola, Duration.ofMinutes(1)) {
+            @Override
+            SseEmitter crearEmitter() {
+                return new EmisorGrabado();
+            }
+        };
+    }
+
+    private static List<VehiculoCambioDto> difundir(CambiosVehiculoFeed feed, int cantidad) {
+        List<VehiculoCambioDto> cambios = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            VehiculoCambioDto cambio = new VehiculoCambioDto(UUID.randomUUID(), EstadoVehiculo.ALQUILADO, true);
+            feed.difundir(cambio);
+            cambios.add(cambio);
+        }
+        return cambios;
+    }
+
+    private static String id(String evento) {
+        Matcher matcher = ID.matcher(evento);
+        assertThat(matcher.find()).as("evento con id: %s", evento).isTrue();
+        return matcher.group(1);
+    }
+
+    // Guarda el texto de cada evento enviado; puede bloquear el envío para simular un cliente lento
+    private static class EmisorGrabado extends SseEmitter {
+
+        private final BlockingQueue<String> enviados = new LinkedBlockingQueue<>();
+        private final CountDownLatch completado = new CountDownLatch(1);
+        private volatile CountDownLatch bloqueo = new CountDownLatch(0);
+
+        @Override
+        public void send(SseEventBuilder evento) throws IOException {
+            try {
+                bloqueo.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            StringBuilder texto = new StringBuilder();
+            evento.build().forEach(parte -> texto.append(parte.getData()));
+            enviados.add(texto.toString());
+        }
+
+        @Override
+        public void complete() {
+            completado.countDown();
+        }
+
+        String siguiente() throws InterruptedException {
+            String evento = enviados.poll(5, TimeUnit.SECONDS);
+            assertThat(evento).as("evento enviado").isNotNull();
+            return evento;
+        }
+
+        boolean nada() throws InterruptedException {
+            return enviados.poll(200, TimeUnit.MILLISECONDS) == null;
+        }
+
+        void bloquear() {
+            bloqueo = new CountDownLatch(1);
+        }
+
+        void liberar() {
+            bloqueo.countDown();
+        }
+    }
+}
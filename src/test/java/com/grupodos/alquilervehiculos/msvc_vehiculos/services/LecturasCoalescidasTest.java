@@ -0,0 +1,152 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.exceptions.BaseDatosSaturadaException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Peticiones idénticas concurrentes comparten una sola consulta y el mismo buffer; los errores y los
+ * cambios confirmados no dejan resultados reutilizables; quien espera no queda colgado.
+ */
+class LecturasCoalescidasTest {
+
+    private static final int HILOS = 16;
+    private static final Duration ESPERA = Duration.ofSeconds(5);
+
+    private final AtomicInteger consultas = new AtomicInteger();
+
+    @Test
+    void peticionesConcurrentesCompartenLaConsultaEnCurso() throws Exception {
+        LecturasCoalescidas lecturas = new LecturasCoalescidas(null, new ObjectMapper(), 100, Duration.ZERO, ESPERA);
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        List<Future<byte[]>> respuestas = new ArrayList<>();
+        try {
+            for (int i = 0; i < HILOS; i++) {
+                respuestas.add(executor.submit(() -> lecturas.compartir("disponibles", () -> {
+                    consultas.incrementAndGet();
+                    esperar(liberar);
+                    return List.of("ABC123");
+                })));
+            }
+            // Margen para que todos lleguen mientras la primera consulta sigue bloqueada
+            Thread.sleep(300);
+            liberar.countDown();
+
+            byte[] primera = respuestas.getFirst().get();
+            assertThat(new String(primera)).isEqualTo("[\"ABC123\"]");
+            for (Future<byte[]> respuesta : respuestas) {
+                assertThat(respuesta.get()).isSameAs(primera);
+            }
+            assertThat(consultas).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void reutilizaDentroDeLaVentanaHastaUnCambio() {
+        LecturasCoalescidas lecturas = new LecturasCoalescidas(null, new ObjectMapper(), 100, Duration.ofMinutes(1), ESPERA);
+
+        lecturas.compartir("estado", this::consultar);
+        lecturas.compartir("estado", this::consultar);
+        assertThat(consultas).hasValue(1);
+
+        lecturas.onVehiculoCambiado(null);
+        lecturas.compartir("estado", this::consultar);
+        assertThat(consultas).hasValue(2);
+    }
+
+    @Test
+    void unErrorNoSeReutiliza() {
+        LecturasCoalescidas lecturas = new LecturasCoalescidas(null, new ObjectMapper(), 100, Duration.ofMinutes(1), ESPERA);
+
+        assertThatThrownBy(() -> lecturas.compartir("contrato", () -> {
+            consultas.incrementAndGet();
+            throw new IllegalStateException("base caída");
+        })).isInstanceOf(IllegalStateException.class);
+        lecturas.compartir("contrato", this::consultar);
+
+        assertThat(consultas).hasValue(2);
+    }
+
+    @Test
+    void unErrorDeLaJvmTambienLiberaAQuienEspera() throws Exception {
+        LecturasCoalescidas lecturas = new LecturasCoalescidas(null, new ObjectMapper(), 100, Duration.ZERO, ESPERA);
+        CountDownLatch enConsulta = new CountDownLatch(1);
+        CountDownLatch fallar = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<byte[]> primera = executor.submit(() -> lecturas.compartir("disponibles", () -> {
+                enConsulta.countDown();
+                esperar(fallar);
+                throw new StackOverflowError("serialización recursiva");
+            }));
+            assertThat(enConsulta.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<byte[]> segunda = executor.submit(() -> lecturas.compartir("disponibles", this::consultar));
+            Thread.sleep(200);
+            fallar.countDown();
+
+            assertThatThrownBy(() -> primera.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(StackOverflowError.class);
+            assertThatThrownBy(() -> segunda.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(StackOverflowError.class);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void laEsperaDeUnaConsultaAjenaTieneLimite() throws Exception {
+        LecturasCoalescidas lecturas = new LecturasCoalescidas(null, new ObjectMapper(), 100, Duration.ZERO,
+                Duration.ofMillis(100));
+        CountDownLatch enConsulta = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<byte[]> lenta = executor.submit(() -> lecturas.compartir("estado", () -> {
+                enConsulta.countDown();
+                esperar(liberar);
+                return consultar();
+            }));
+            assertThat(enConsulta.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> lecturas.compartir("estado", this::consultar))
+                    .isInstanceOf(BaseDatosSaturadaException.class);
+
+            // Vencer la espera no afecta a la consulta en curso
+            liberar.countDown();
+            assertThat(new String(lenta.get(5, TimeUnit.SECONDS))).isEqualTo("1");
+            assertThat(consultas).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Object consultar() {
+        return consultas.incrementAndGet();
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
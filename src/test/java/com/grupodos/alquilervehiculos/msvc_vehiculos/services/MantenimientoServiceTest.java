@@ -0,0 +1,156 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.services;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.MantenimientoRequestDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Mantenimiento;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Marca;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Modelo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.TipoVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Vehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.EstadoVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.TipoCombustible;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.MarcaRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.ModeloRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.TipoVehiculoRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.VehiculoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * El índice parcial de V5 no existe con ddl-auto: se recrea su equivalente en H2 (índice único sobre una
+ * columna calculada que es nula para los mantenimientos finalizados) con el mismo nombre. Crear, mover,
+ * finalizar y eliminar devuelven el vehículo con el estado y la versión que quedaron en la base.
+ */
+@SpringBootTest(properties =
+        // Base propia: las restricciones que se agregan aquí no llegan a los demás contextos
+        "spring.datasource.url=jdbc:h2:mem:vehiculos-mantenimientos;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH")
+class MantenimientoServiceTest {
+
+    @Autowired
+    private MantenimientoService mantenimientoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private VehiculoRepository vehiculoRepository;
+
+    @Autowired
+    private MarcaRepository marcaRepository;
+
+    @Autowired
+    private ModeloRepository modeloRepository;
+
+    @Autowired
+    private TipoVehiculoRepository tipoVehiculoRepository;
+
+    @BeforeEach
+    void crearRestricciones() {
+        jdbcTemplate.execute("""
+                ALTER TABLE mantenimientos ADD COLUMN IF NOT EXISTS id_vehiculo_abierto UUID
+                    GENERATED ALWAYS AS (CASE WHEN finalizado = false THEN id_vehiculo END)""");
+        jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS " + MantenimientoService.UQ_MANTENIMIENTO_ABIERTO
+                + " ON mantenimientos (id_vehiculo_abierto)");
+        jdbcTemplate.execute("""
+                ALTER TABLE mantenimientos ADD CONSTRAINT IF NOT EXISTS ck_mantenimientos_costo
+                    CHECK (costo >= 0)""");
+    }
+
+    @Test
+    void segundoMantenimientoAbiertoSeRechaza() {
+        UUID id = crearVehiculoDisponible("MANT001");
+        // Otro mantenimiento abierto que el estado DISPONIBLE no refleja: solo el índice lo detecta
+        jdbcTemplate.update("""
+                INSERT INTO mantenimientos (id_vehiculo, descripcion, fecha_inicio, costo, finalizado)
+                VALUES (?, 'Abierto por otra instancia', CURRENT_DATE, 0, false)""", id);
+
+        assertThatThrownBy(() -> mantenimientoService.crearMantenimiento(solicitud(id, BigDecimal.ZERO)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("El vehículo ya tiene mantenimientos en curso");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM mantenimientos WHERE id_vehiculo = ? AND finalizado = false", Long.class, id))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void otraRestriccionNoSeTraduce() {
+        UUID id = crearVehiculoDisponible("MANT002");
+
+        assertThatThrownBy(() -> mantenimientoService.crearMantenimiento(solicitud(id, new BigDecimal("-1"))))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void cicloCompletoDevuelveElVehiculoConEstadoYVersionActuales() {
+        UUID primero = crearVehiculoDisponible("MANT003");
+        UUID segundo = crearVehiculoDisponible("MANT004");
+
+        Mantenimiento creado = mantenimientoService.crearMantenimiento(solicitud(primero, BigDecimal.TEN));
+        assertVehiculo(creado, primero, EstadoVehiculo.EN_MANTENIMIENTO);
+
+        Mantenimiento movido = mantenimientoService.actualizarMantenimiento(creado.getId(),
+                new MantenimientoRequestDto(segundo, "Cambio de frenos", null, null, BigDecimal.ONE));
+        assertVehiculo(movido, segundo, EstadoVehiculo.EN_MANTENIMIENTO);
+        assertThat(movido.getDescripcion()).isEqualTo("Cambio de frenos");
+        assertThat(vehiculoRepository.findEstadoById(primero)).contains(EstadoVehiculo.DISPONIBLE);
+
+        Mantenimiento finalizado = mantenimientoService.finalizarMantenimiento(creado.getId());
+        assertVehiculo(finalizado, segundo, EstadoVehiculo.DISPONIBLE);
+
+        Mantenimiento abierto = mantenimientoService.crearMantenimiento(solicitud(segundo, BigDecimal.ZERO));
+        assertVehiculo(abierto, segundo, EstadoVehiculo.EN_MANTENIMIENTO);
+        mantenimientoService.eliminarMantenimiento(abierto.getId());
+
+        assertThat(vehiculoRepository.findEstadoById(segundo)).contains(EstadoVehiculo.DISPONIBLE);
+        // Cuatro transiciones del segundo vehículo, cada una con su incremento de versión
+        assertThat(vehiculoRepository.findVersionById(segundo)).contains(4L);
+    }
+
+    private void assertVehiculo(Mantenimiento mantenimiento, UUID id, EstadoVehiculo estado) {
+        Vehiculo vehiculo = mantenimiento.getVehiculo();
+        assertThat(vehiculo.getId()).isEqualTo(id);
+        assertThat(vehiculo.getEstado()).isEqualTo(estado);
+        assertThat(vehiculo.getVersion()).isEqualTo(vehiculoRepository.findVersionById(id).orElseThrow());
+    }
+
+    private static MantenimientoRequestDto solicitud(UUID vehiculoId, BigDecimal costo) {
+        return new MantenimientoRequestDto(vehiculoId, "Cambio de aceite", null, null, costo);
+    }
+
+    private UUID crearVehiculoDisponible(String placa) {
+        Marca marca = new Marca();
+        marca.setNombre("Marca " + placa);
+        marca = marcaRepository.save(marca);
+
+        Modelo modelo = new Modelo();
+        modelo.setNombre("Modelo " + placa);
+        modelo.setMarca(marca);
+        modelo = modeloRepository.save(modelo);
+
+        TipoVehiculo tipo = new TipoVehiculo();
+        tipo.setNombre("Tipo " + placa);
+        tipo = tipoVehiculoRepository.save(tipo);
+
+        Vehiculo vehiculo = new Vehiculo();
+        vehiculo.setPlaca(placa);
+        vehiculo.setModelo(modelo);
+        vehiculo.setTipoVehiculo(tipo);
+        vehiculo.setAnioFabricacion(2023);
+        vehiculo.setCombustible(TipoCombustible.GASOLINA);
+        vehiculo.setDescripcion("Vehículo para prueba de mantenimientos");
+        vehiculo.setCreadoEn(OffsetDateTime.now());
+        vehiculo.setEstado(EstadoVehiculo.DISPONIBLE);
+        vehiculo.setActivo(true);
+        return vehiculoRepository.save(vehiculo).getId();
+    }
+}
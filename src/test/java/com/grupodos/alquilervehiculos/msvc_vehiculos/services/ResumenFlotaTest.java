@@ -0,0 +1,85 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.services;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.MantenimientoRequestDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.ResumenFlotaDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.dto.VehiculoRequestDto;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Marca;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Modelo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.TipoVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.EstadoVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.TipoCombustible;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.MarcaRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.ModeloRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.TipoVehiculoRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Los contadores actualizados por eventos deben coincidir con lo que da el GROUP BY.
+ */
+@SpringBootTest
+class ResumenFlotaTest {
+
+    @Autowired
+    private ResumenFlota resumenFlota;
+
+    @Autowired
+    private VehiculoService vehiculoService;
+
+    @Autowired
+    private MantenimientoService mantenimientoService;
+
+    @Autowired
+    private MarcaRepository marcaRepository;
+
+    @Autowired
+    private ModeloRepository modeloRepository;
+
+    @Autowired
+    private TipoVehiculoRepository tipoVehiculoRepository;
+
+    @Test
+    void contadoresIncrementalesCoincidenConLaReconciliacion() {
+        Marca marca = new Marca();
+        marca.setNombre("Resumen");
+        marca = marcaRepository.save(marca);
+        Modelo modelo = new Modelo();
+        modelo.setNombre("Contador");
+        modelo.setMarca(marca);
+        modelo = modeloRepository.save(modelo);
+        TipoVehiculo tipo = new TipoVehiculo();
+        tipo.setNombre("Resumen");
+        tipo = tipoVehiculoRepository.save(tipo);
+
+        resumenFlota.reconciliar();
+
+        UUID alquilado = crear("RES0001", modelo, tipo);
+        UUID enMantenimiento = crear("RES0002", modelo, tipo);
+        UUID eliminado = crear("RES0003", modelo, tipo);
+        vehiculoService.actualizarEstado(alquilado, EstadoVehiculo.ALQUILADO);
+        mantenimientoService.crearMantenimiento(
+                new MantenimientoRequestDto(enMantenimiento, "Cambio de aceite", null, null, BigDecimal.TEN));
+        vehiculoService.eliminarVehiculo(eliminado);
+
+        ResumenFlotaDto incremental = resumenFlota.obtenerResumen();
+        resumenFlota.reconciliar();
+        ResumenFlotaDto reconciliado = resumenFlota.obtenerResumen();
+
+        assertThat(incremental).isEqualTo(reconciliado);
+        assertThat(reconciliado.detalle())
+                .filteredOn(conteo -> conteo.marca().equals("Resumen"))
+                .extracting(conteo -> conteo.estado() + ":" + conteo.cantidad())
+                .containsExactlyInAnyOrder("ALQUILADO:1", "EN_MANTENIMIENTO:1");
+    }
+
+    private UUID crear(String placa, Modelo modelo, TipoVehiculo tipo) {
+        return vehiculoService.crearVehiculo(new VehiculoRequestDto(placa, modelo.getId(), tipo.getId().longValue(),
+                2023, TipoCombustible.HIBRIDO, "Vehículo para prueba de resumen")).getId();
+    }
+}
@@ -0,0 +1,115 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.services;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Marca;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Modelo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.TipoVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Vehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.EstadoVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.TipoCombustible;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.exceptions.ConflictoEstadoVehiculoException;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.MarcaRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.ModeloRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.TipoVehiculoRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.VehiculoRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Muchos hilos intentan alquilar el mismo vehículo a la vez: exactamente uno debe ganar.
+ */
+@SpringBootTest
+class VehiculoServiceConcurrenciaTest {
+
+    private static final int HILOS = 16;
+
+    @Autowired
+    private VehiculoService vehiculoService;
+
+    @Autowired
+    private VehiculoRepository vehiculoRepository;
+
+    @Autowired
+    private MarcaRepository marcaRepository;
+
+    @Autowired
+    private ModeloRepository modeloRepository;
+
+    @Autowired
+    private TipoVehiculoRepository tipoVehiculoRepository;
+
+    @Test
+    void soloUnAlquilerConcurrenteGana() throws Exception {
+        UUID id = crearVehiculoDisponible();
+
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<Boolean>> intentos = new ArrayList<>();
+        try {
+            for (int i = 0; i < HILOS; i++) {
+                intentos.add(executor.submit(() -> {
+                    salida.await();
+                    try {
+                        vehiculoService.actualizarEstado(id, EstadoVehiculo.ALQUILADO);
+                        return true;
+                    } catch (ConflictoEstadoVehiculoException | IllegalStateException e) {
+                        return false;
+                    }
+                }));
+            }
+            salida.countDown();
+
+            int ganadores = 0;
+            for (Future<Boolean> intento : intentos) {
+                if (intento.get()) {
+                    ganadores++;
+                }
+            }
+            assertThat(ganadores).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Vehiculo vehiculo = vehiculoRepository.findById(id).orElseThrow();
+        assertThat(vehiculo.getEstado()).isEqualTo(EstadoVehiculo.ALQUILADO);
+        assertThat(vehiculo.getVersion()).isEqualTo(1L);
+    }
+
+    private UUID crearVehiculoDisponible() {
+        Marca marca = new Marca();
+        marca.setNombre("Concurrencia");
+        marca = marcaRepository.save(marca);
+
+        Modelo modelo = new Modelo();
+        modelo.setNombre("Estres");
+        modelo.setMarca(marca);
+        modelo = modeloRepository.save(modelo);
+
+        TipoVehiculo tipo = new TipoVehiculo();
+        tipo.setNombre("Concurrencia");
+        tipo = tipoVehiculoRepository.save(tipo);
+
+        Vehiculo vehiculo = new Vehiculo();
+        vehiculo.setPlaca("CONC001");
+        vehiculo.setModelo(modelo);
+        vehiculo.setTipoVehiculo(tipo);
+        vehiculo.setAnioFabricacion(2022);
+        vehiculo.setCombustible(TipoCombustible.DIESEL);
+        vehiculo.setDescripcion("Vehículo para prueba de concurrencia");
+        vehiculo.setCreadoEn(OffsetDateTime.now());
+        vehiculo.setEstado(EstadoVehiculo.DISPONIBLE);
+        vehiculo.setActivo(true);
+        return vehiculoRepository.save(vehiculo).getId();
+    }
+}
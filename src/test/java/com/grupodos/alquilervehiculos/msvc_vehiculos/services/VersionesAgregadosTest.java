@@ -0,0 +1,193 @@
+package com.grupodos.alquilervehiculos.msvc_vehiculos.services;
+
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Marca;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Modelo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.OutboxEvento;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.TipoVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.Vehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.EstadoVehiculo;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.entities.enums.TipoCombustible;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.MarcaRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.ModeloRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.OutboxEventoRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.TipoVehiculoRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.VehiculoRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.repositories.VersionAgregadoRepository;
+import com.grupodos.alquilervehiculos.msvc_vehiculos.services.VersionesAgregados.Agregado;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Las escrituras de otra instancia llegan solo a la base y al outbox (sin eventos locales): los ETags deben
+ * cambiar igual y las caches locales de catálogo no deben seguir sirviendo lo anterior. Calcular un ETag
+ * no consulta la base salvo la primera vez.
+ */
+@SpringBootTest
+class VersionesAgregadosTest {
+
+    @Autowired
+    private VersionesAgregados versionesAgregados;
+
+    @Autowired
+    private MarcaService marcaService;
+
+    @Autowired
+    private ModeloService modeloService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private VehiculoRepository vehiculoRepository;
+
+    @Autowired
+    private MarcaRepository marcaRepository;
+
+    @Autowired
+    private ModeloRepository modeloRepository;
+
+    @Autowired
+    private TipoVehiculoRepository tipoVehiculoRepository;
+
+    @Autowired
+    private OutboxEventoRepository outboxEventoRepository;
+
+    @Autowired
+    private CambiosOutboxLector cambiosOutboxLector;
+
+    @Test
+    void etagDeVehiculoCambiaConUnaEscrituraDeOtraInstancia() {
+        UUID id = crearVehiculo();
+        String etag = versionesAgregados.etagVehiculo(id);
+
+        jdbcTemplate.update("update vehiculos set estado = 'ALQUILADO', version = version + 1 where id_vehiculo = ?", id);
+        // Sin evento todavía: la versión sale de memoria
+        assertThat(versionesAgregados.etagVehiculo(id)).isEqualTo(etag);
+
+        outboxEventoRepository.save(eventoDeOtraInstancia(id));
+        cambiosOutboxLector.leerNuevos();
+
+        assertThat(versionesAgregados.etagVehiculo(id)).isNotEqualTo(etag);
+    }
+
+    @Test
+    void catalogoEscritoPorOtraInstanciaVaciaLaCacheLocal() {
+        String etag = versionesAgregados.etag(Agregado.MARCAS);
+        assertThat(marcaService.listarTodas()).extracting(Marca::getNombre).doesNotContain("Otra instancia");
+
+        jdbcTemplate.update("insert into marcas (nombre) values ('Otra instancia')");
+        jdbcTemplate.update("update versiones_agregados set version = version + 1 where agregado = 'MARCAS'");
+        // La versión ajena se publica en la segunda lectura, tras vaciar dos veces la cache de segundo nivel
+        versionesAgregados.refrescar();
+        versionesAgregados.refrescar();
+
+        assertThat(versionesAgregados.etag(Agregado.MARCAS)).isNotEqualTo(etag);
+        assertThat(marcaService.listarTodas()).extracting(Marca::getNombre).contains("Otra instancia");
+    }
+
+    @Test
+    void lasPeticionesNoConsultanLaBaseTrasLaPrimeraLectura() {
+        VersionAgregadoRepository versiones = mock(VersionAgregadoRepository.class);
+        VehiculoRepository vehiculos = mock(VehiculoRepository.class);
+        UUID id = UUID.randomUUID();
+        when(vehiculos.findVersionById(id)).thenReturn(Optional.of(3L));
+        VersionesAgregados enMemoria = versionesConMocks(versiones, vehiculos);
+
+        for (int i = 0; i < 10; i++) {
+            enMemoria.etag(Agregado.MARCAS);
+            enMemoria.etagVehiculo(id);
+        }
+
+        verify(versiones, times(1)).findAll();
+        verify(vehiculos, times(1)).findVersionById(id);
+    }
+
+    @Test
+    void unaVersionLeidaAntesDeUnaInvalidacionNoQuedaEnCache() {
+        VehiculoRepository vehiculos = mock(VehiculoRepository.class);
+        UUID id = UUID.randomUUID();
+        VersionesAgregados enMemoria = versionesConMocks(mock(VersionAgregadoRepository.class), vehiculos);
+        // La invalidación del commit llega mientras se lee la versión anterior a él
+        when(vehiculos.findVersionById(id))
+                .thenAnswer(invocacion -> {
+                    enMemoria.olvidarVehiculo(id);
+                    return Optional.of(1L);
+                })
+                .thenReturn(Optional.of(2L));
+
+        assertThat(enMemoria.etagVehiculo(id)).startsWith("\"vehiculo-1-");
+        assertThat(enMemoria.etagVehiculo(id)).startsWith("\"vehiculo-2-");
+        assertThat(enMemoria.etagVehiculo(id)).startsWith("\"vehiculo-2-");
+        verify(vehiculos, times(2)).findVersionById(id);
+    }
+
+    private static VersionesAgregados versionesConMocks(VersionAgregadoRepository versiones, VehiculoRepository vehiculos) {
+        return new VersionesAgregados(versiones, vehiculos, mock(EntityManagerFactory.class),
+                mock(PlatformTransactionManager.class), 100, Duration.ofMinutes(5));
+    }
+
+    private static OutboxEvento eventoDeOtraInstancia(UUID id) {
+        OutboxEvento evento = new OutboxEvento();
+        evento.setVehiculoId(id);
+        evento.setTipo("VEHICULO_ESTADO");
+        evento.setPayload("{\"id\":\"%s\",\"tipo\":\"ESTADO\",\"estado\":\"ALQUILADO\",\"activo\":true}".formatted(id));
+        evento.setCreadoEn(OffsetDateTime.now());
+        return evento;
+    }
+
+    @Test
+    void loteSinModelosNuevosNoCambiaElEtag() {
+        Marca marca = new Marca();
+        marca.setNombre("Lote repetido");
+        Long marcaId = marcaRepository.save(marca).getId();
+        modeloService.crearModelos(marcaId, List.of("Uno"));
+        String etag = versionesAgregados.etag(Agregado.MODELOS);
+
+        assertThat(modeloService.crearModelos(marcaId, List.of("Uno", " uno "))).isEmpty();
+
+        assertThat(versionesAgregados.etag(Agregado.MODELOS)).isEqualTo(etag);
+    }
+
+    private UUID crearVehiculo() {
+        Marca marca = new Marca();
+        marca.setNombre("Versiones");
+        marca = marcaRepository.save(marca);
+
+        Modelo modelo = new Modelo();
+        modelo.setNombre("Etag");
+        modelo.setMarca(marca);
+        modelo = modeloRepository.save(modelo);
+
+        TipoVehiculo tipo = new TipoVehiculo();
+        tipo.setNombre("Versiones");
+        tipo = tipoVehiculoRepository.save(tipo);
+
+        Vehiculo vehiculo = new Vehiculo();
+        vehiculo.setPlaca("VERS001");
+        vehiculo.setModelo(modelo);
+        vehiculo.setTipoVehiculo(tipo);
+        vehiculo.setAnioFabricacion(2023);
+        vehiculo.setCombustible(TipoCombustible.GASOLINA);
+        vehiculo.setDescripcion("Vehículo para prueba de ETags");
+        vehiculo.setCreadoEn(OffsetDateTime.now());
+        vehiculo.setEstado(EstadoVehiculo.DISPONIBLE);
+        vehiculo.setActivo(true);
+        return vehiculoRepository.save(vehiculo).getId();
+    }
+}
@@ -0,0 +1,2 @@
+-- Hibernate lo ejecuta tras crear el esquema (ddl-auto=create-drop); en producción lo siembra la migración V6
+INSERT INTO versiones_agregados (agregado, version) VALUES ('MARCAS', 0), ('MODELOS', 0), ('TIPOS', 0);